@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Замер времени до первого ответа и RSS для разных вариантов запуска.
+# Требует поднятую базу из dev-env/docker-compose.yaml и собранные артефакты:
+#   ./gradlew bootJar cdsArchive nativeCompile
+# Использование: dev-env/startup-benchmark.sh [jar|cds|native]...
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+URL="http://localhost:5000/security/api/v1/test/unsecured"
+JAR="$(ls "$ROOT"/build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)"
+
+start() {
+  case "$1" in
+    jar) exec java -jar "$JAR" ;;
+    cds) cd "$ROOT/build/cds" && exec java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+           -Dspring.profiles.active=fast-start -jar "$(basename "$JAR")" ;;
+    native) exec "$ROOT/build/native/nativeCompile/spring-security-demo" --spring.profiles.active=fast-start ;;
+  esac
+}
+
+for mode in "${@:-jar cds native}"; do
+  for variant in $mode; do
+    begin=$(date +%s%N)
+    start "$variant" > "/tmp/startup-$variant.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do sleep 0.02; done
+    end=$(date +%s%N)
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status" 2>/dev/null || echo "?")
+    printf '%-7s time-to-first-request %6d ms  rss %8s kB\n' "$variant" $(((end - begin) / 1000000)) "$rss"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+  done
+done
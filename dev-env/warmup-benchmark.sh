@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Сравнение p99 первой минуты после открытия readiness с прогревом и без него.
+# Требует поднятую базу из dev-env/docker-compose.yaml, собранный jar (./gradlew bootJar),
+# а также curl, openssl и hey (https://github.com/rakyll/hey).
+# Access токен подписывается секретом из application.yaml, поэтому запросы к /test/secured
+# проходят полную проверку токена без логина.
+# Использование: dev-env/warmup-benchmark.sh [on|off]...
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+BASE="http://localhost:5000/security/api/v1"
+JAR="$(ls "$ROOT"/build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)"
+SECRET="$(awk '/access-secret:/ {gsub(/"/, "", $2); print $2}' "$ROOT/src/main/resources/application.yaml")"
+DURATION="${DURATION:-60s}"
+CONCURRENCY="${CONCURRENCY:-50}"
+
+b64url() { openssl base64 -A | tr '+/' '-_' | tr -d '='; }
+
+token() {
+  local now header payload signature
+  now=$(date +%s)
+  header=$(printf '{"alg":"HS256"}' | b64url)
+  payload=$(printf '{"roles":["ROLE_USER"],"uid":1,"sub":"user","iat":%d,"exp":%d}' "$now" $((now + 3600)) | b64url)
+  signature=$(printf '%s.%s' "$header" "$payload" \
+    | openssl dgst -sha256 -mac HMAC -macopt hexkey:"$(printf '%s' "$SECRET" | openssl base64 -d -A | xxd -p | tr -d '\n')" -binary \
+    | b64url)
+  printf '%s.%s.%s' "$header" "$payload" "$signature"
+}
+
+for variant in "${@:-on off}"; do
+  for mode in $variant; do
+    enabled=$([ "$mode" = "on" ] && echo true || echo false)
+    java -jar "$JAR" --warmup.enabled="$enabled" > "/tmp/warmup-$mode.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$BASE/actuator/health/readiness"; do sleep 0.05; done
+    p99=$(hey -z "$DURATION" -c "$CONCURRENCY" -H "Authorization: Bearer $(token)" "$BASE/test/secured" \
+      | awk '/99%/ {print $3 * 1000}')
+    printf 'warmup=%-3s p99 of the first %s: %s ms\n' "$mode" "$DURATION" "$p99"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+  done
+done
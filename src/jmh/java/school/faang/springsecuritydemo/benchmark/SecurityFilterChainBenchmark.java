@@ -0,0 +1,162 @@
+package school.faang.springsecuritydemo.benchmark;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+import school.faang.springsecuritydemo.auth.JwtAuthentication;
+import school.faang.springsecuritydemo.auth.JwtPrincipal;
+import school.faang.springsecuritydemo.auth.SecurityConfiguration;
+
+/**
+ * Стоимость прохода запроса через цепочку Spring Security со стандартным набором фильтров
+ * (прежняя конфигурация) и без фильтров, отключенных {@link SecurityConfiguration#disableStatefulFilters}.
+ * <p>
+ * Правила доступа и точка входа в обоих вариантах одинаковые, проверка JWT заменена фильтром,
+ * который выставляет заранее созданную аутентификацию, поэтому разница показывает только
+ * накладные расходы лишних фильтров. Маршруты сопоставляются как Ant-шаблоны, так как контекст
+ * бенчмарка не является веб-контекстом.
+ * <p>
+ * Запуск: {@code ./gradlew jmh -Pjmh.includes=SecurityFilterChainBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SecurityFilterChainBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"default", "lean"})
+    private String chain;
+
+    private AnnotationConfigApplicationContext context;
+
+    private Filter springSecurityFilterChain;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(
+                "lean".equals(chain) ? LeanChainConfiguration.class : DefaultChainConfiguration.class);
+        springSecurityFilterChain = context.getBean("springSecurityFilterChain", Filter.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int authenticated() throws Exception {
+        var request = request("/test/secured");
+        request.addHeader("Authorization", "Bearer token");
+        var response = new MockHttpServletResponse();
+        springSecurityFilterChain.doFilter(request, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int unauthenticated() throws Exception {
+        var request = request("/test/secured");
+        var response = new MockHttpServletResponse();
+        springSecurityFilterChain.doFilter(request, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int permitted() throws Exception {
+        var request = request("/test/unsecured");
+        var response = new MockHttpServletResponse();
+        springSecurityFilterChain.doFilter(request, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        var request = new MockHttpServletRequest("GET", "/security/api/v1" + path);
+        request.setContextPath("/security/api/v1");
+        request.setServletPath(path);
+        return request;
+    }
+
+    private static HttpSecurity commonRules(HttpSecurity http) throws Exception {
+        return http
+                .csrf(csrf -> csrf.disable())
+                .cors(cors -> cors.disable())
+                .authorizeHttpRequests(req -> req
+                        .requestMatchers("/authorization/login", "/test/unsecured").permitAll()
+                        .anyRequest().authenticated())
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(new FixedBearerFilter(), UsernamePasswordAuthenticationFilter.class);
+    }
+
+    @Configuration
+    @EnableWebSecurity
+    static class DefaultChainConfiguration {
+
+        @Bean
+        SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+            return commonRules(http)
+                    .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .build();
+        }
+    }
+
+    @Configuration
+    @EnableWebSecurity
+    static class LeanChainConfiguration {
+
+        @Bean
+        SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+            return SecurityConfiguration.disableStatefulFilters(commonRules(http)).build();
+        }
+    }
+
+    /**
+     * Замена {@code JwtRequestFilter}: запрос с заголовком Authorization получает заранее созданную аутентификацию.
+     */
+    static class FixedBearerFilter extends OncePerRequestFilter {
+
+        private final JwtAuthentication authentication = new JwtAuthentication(new JwtPrincipal(1L, "user"),
+                List.of("ROLE_USER"), List.<GrantedAuthority>of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            if (request.getHeader("Authorization") != null) {
+                var strategy = SecurityContextHolder.getContextHolderStrategy();
+                var securityContext = strategy.createEmptyContext();
+                securityContext.setAuthentication(authentication);
+                strategy.setContext(securityContext);
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package school.faang.springsecuritydemo.benchmark;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import school.faang.springsecuritydemo.auth.CustomUserDetails;
+import school.faang.springsecuritydemo.auth.SecurityConstants;
+import school.faang.springsecuritydemo.util.JwtTokenUtils;
+
+/**
+ * Сравнение выпуска access токена через jjwt (прежняя реализация `generateAccessToken`)
+ * и через {@link school.faang.springsecuritydemo.util.Hs256TokenIssuer}.
+ * <p>
+ * Запуск: {@code ./gradlew jmh -Pjmh.includes=TokenIssueBenchmark}. Профайлер `gc` показывает
+ * аллокации на операцию (`gc.alloc.rate.norm`).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenIssueBenchmark {
+
+    private SecurityConstants securityConstants;
+    private JwtTokenUtils jwtTokenUtils;
+    private CustomUserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        securityConstants = new SecurityConstants();
+        securityConstants.setAccessSecret("ASDIJIUuhHUHUIIUVFfgff134gguYYlloigbVxseqwty");
+        securityConstants.setAccessLifetime(600_000);
+        securityConstants.setRefreshSecret("wenuiuweiGUYGYUVHBXWS112jBUIWCIOJBHJIHtdfGygioiHy6d78d");
+        securityConstants.setRefreshLifetime(86_400_000);
+        jwtTokenUtils = new JwtTokenUtils(securityConstants);
+        userDetails = new CustomUserDetails(1L, "user", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Benchmark
+    public String jjwtBuilder() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("roles", userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        claims.put("uid", userDetails.getId());
+        Date issuedDate = new Date();
+        Date expiredDate = new Date(issuedDate.getTime() + securityConstants.getAccessLifetime());
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(userDetails.getUsername())
+                .setIssuedAt(issuedDate)
+                .setExpiration(expiredDate)
+                .signWith(SignatureAlgorithm.HS256, securityConstants.getAccessSecret())
+                .compact();
+    }
+
+    @Benchmark
+    public String hs256Issuer() {
+        return jwtTokenUtils.generateAccessToken(userDetails);
+    }
+}
@@ -0,0 +1,65 @@
+package school.faang.springsecuritydemo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * HTTP-клиент к API авторизации, используемый сценариями нагрузки.
+ */
+public class AuthClient {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+
+    public AuthClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public Tokens login(String username, String password) throws IOException, InterruptedException {
+        var response = post("/authorization/login",
+                objectMapper.createObjectNode().put("username", username).put("password", password));
+        return response.statusCode() == 200 ? readTokens(response.body()) : null;
+    }
+
+    public Tokens refresh(String refreshToken) throws IOException, InterruptedException {
+        var response = post("/authorization/refresh-tokens",
+                objectMapper.createObjectNode().put("refreshToken", refreshToken));
+        return response.statusCode() == 200 ? readTokens(response.body()) : null;
+    }
+
+    public int get(String path, String accessToken) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpResponse<String> post(String path, JsonNode body) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Tokens readTokens(String body) throws IOException {
+        JsonNode node = objectMapper.readTree(body);
+        return new Tokens(node.path("accessToken").asText(), node.path("refreshToken").asText());
+    }
+
+    public record Tokens(String accessToken, String refreshToken) {
+    }
+}
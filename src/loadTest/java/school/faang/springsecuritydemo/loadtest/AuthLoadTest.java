@@ -0,0 +1,192 @@
+package school.faang.springsecuritydemo.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Воспроизводимый нагрузочный прогон `AuthController` и `TestController`.
+ * <p>
+ * Приложение поднимается целиком на случайном порту поверх Postgres из Testcontainers,
+ * после чего по очереди выполняются сценарии: шторм логинов, ротация refresh-токенов,
+ * запросы к `/test/secured` и смешанный трафик с админскими запросами.
+ * Результаты пишутся в `build/reports/load-test` и сравниваются с `src/loadTest/resources/baseline.properties`.
+ * <p>
+ * Запуск: {@code ./gradlew loadTest}, фиксация нового baseline: {@code ./gradlew loadTest -PrecordBaseline}.
+ * Без baseline или без результатов какого-либо сценария в нем прогон завершается ошибкой:
+ * иначе регрессии никогда не обнаруживались бы.
+ */
+@Slf4j
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuthLoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final int USERS = 200;
+    private static final int ADMINS = 20;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private AuthClient client;
+
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+    private final Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 30));
+    private final double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2"));
+
+    @BeforeAll
+    void seedUsers() {
+        client = new AuthClient("http://localhost:" + port + "/security/api/v1");
+        // Хеш считается один раз: стоимость BCrypt при логине от этого не меняется
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            rows.add(new Object[] {userName(i), hash, userName(i) + "@load.test"});
+        }
+        for (int i = 0; i < ADMINS; i++) {
+            rows.add(new Object[] {adminName(i), hash, adminName(i) + "@load.test"});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into users (username, password, email) values (?, ?, ?) on conflict do nothing", rows);
+        jdbcTemplate.update("""
+                insert into users_roles (user_id, role_id)
+                select u.id, r.id from users u, roles r
+                where u.username like 'load-user-%' and r.name = 'ROLE_USER'
+                   or u.username like 'load-admin-%' and r.name = 'ROLE_ADMIN'
+                on conflict do nothing
+                """);
+    }
+
+    @Test
+    void authScenarios() throws Exception {
+        LoadRunner runner = new LoadRunner(Duration.ofSeconds(5), duration);
+        List<ScenarioResult> results = new ArrayList<>();
+        var scenarios = List.of(loginStorm(), refreshRotation(), securedTraffic(), mixedAdminTraffic());
+        for (LoadScenario scenario : scenarios) {
+            ScenarioResult result = runner.run(scenario);
+            log.info("{}", result);
+            results.add(result);
+        }
+
+        var properties = Baseline.toProperties(results);
+        var comment = String.format("concurrency=%d duration=%s", concurrency, duration);
+        Baseline.write(properties, Path.of(System.getProperty("loadtest.report",
+                "build/reports/load-test/results.properties")), comment);
+
+        Path baseline = Path.of(System.getProperty("loadtest.baseline",
+                "src/loadTest/resources/baseline.properties"));
+        if (Boolean.getBoolean("loadtest.record-baseline")) {
+            Baseline.write(properties, baseline, comment);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            fail("Baseline не найден: " + baseline + ". Зафиксируйте его на эталонной машине командой "
+                    + "./gradlew loadTest -PrecordBaseline и закоммитьте файл");
+        }
+        Properties recorded = Baseline.read(baseline);
+        List<String> missing = Baseline.missing(recorded, results);
+        if (!missing.isEmpty()) {
+            fail("В baseline нет результатов сценариев " + missing + ". Зафиксируйте его на эталонной машине "
+                    + "командой ./gradlew loadTest -PrecordBaseline и закоммитьте файл");
+        }
+        List<String> regressions = Baseline.regressions(recorded, results, tolerance);
+        assertTrue(regressions.isEmpty(), () -> "Регрессии относительно baseline: " + regressions);
+    }
+
+    /**
+     * Одновременные логины разных пользователей: BCrypt, загрузка пользователя, подпись и запись refresh-токена.
+     */
+    private LoadScenario loginStorm() {
+        return new LoadScenario("login-storm", concurrency, worker -> {
+            String username = userName(worker % USERS);
+            return () -> client.login(username, PASSWORD) != null;
+        });
+    }
+
+    /**
+     * Каждый пользователь постоянно обменивает свой refresh-токен на новую пару.
+     */
+    private LoadScenario refreshRotation() {
+        return new LoadScenario("refresh-rotation", concurrency, worker -> {
+            String username = userName(worker % USERS);
+            AuthClient.Tokens[] tokens = {client.login(username, PASSWORD)};
+            return () -> {
+                AuthClient.Tokens refreshed = client.refresh(tokens[0].refreshToken());
+                if (refreshed == null) {
+                    tokens[0] = client.login(username, PASSWORD);
+                    return false;
+                }
+                tokens[0] = refreshed;
+                return true;
+            };
+        });
+    }
+
+    /**
+     * Запросы с access-токеном к защищенному эндпоинту: стоимость фильтра и цепочки безопасности.
+     */
+    private LoadScenario securedTraffic() {
+        return new LoadScenario("secured", concurrency, worker -> {
+            String accessToken = client.login(userName(worker % USERS), PASSWORD).accessToken();
+            return () -> client.get("/test/secured", accessToken) == 200;
+        });
+    }
+
+    /**
+     * Смешанный трафик: админские запросы, запрет для обычных пользователей и текущий пользователь.
+     */
+    private LoadScenario mixedAdminTraffic() {
+        return new LoadScenario("mixed-admin", concurrency, worker -> {
+            String userToken = client.login(userName(worker % USERS), PASSWORD).accessToken();
+            String adminToken = client.login(adminName(worker % ADMINS), PASSWORD).accessToken();
+            return () -> {
+                int dice = ThreadLocalRandom.current().nextInt(10);
+                if (dice < 2) {
+                    return client.get("/test/admin", adminToken) == 200;
+                } else if (dice < 3) {
+                    return client.get("/test/admin", userToken) == 403;
+                }
+                return client.get("/test/current-user", userToken) == 200;
+            };
+        });
+    }
+
+    private static String userName(int index) {
+        return "load-user-" + index;
+    }
+
+    private static String adminName(int index) {
+        return "load-admin-" + index;
+    }
+}
@@ -0,0 +1,101 @@
+package school.faang.springsecuritydemo.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Сохранение результатов прогона и сравнение их с зафиксированным baseline.
+ * <p>
+ * Формат файла — properties с ключами вида {@code <сценарий>.<метрика>}. Регрессией считается
+ * рост p99, снижение пропускной способности больше допустимого отклонения или рост доли ошибок.
+ */
+public final class Baseline {
+
+    private Baseline() {
+    }
+
+    public static Properties toProperties(List<ScenarioResult> results) {
+        Properties properties = new Properties();
+        for (ScenarioResult result : results) {
+            properties.setProperty(result.name() + ".throughput",
+                    String.format(Locale.ROOT, "%.1f", result.throughput()));
+            properties.setProperty(result.name() + ".p50", Long.toString(result.percentileMicros(0.50)));
+            properties.setProperty(result.name() + ".p99", Long.toString(result.percentileMicros(0.99)));
+            properties.setProperty(result.name() + ".p999", Long.toString(result.percentileMicros(0.999)));
+            properties.setProperty(result.name() + ".error-rate",
+                    String.format(Locale.ROOT, "%.5f", result.errorRate()));
+        }
+        return properties;
+    }
+
+    public static void write(Properties properties, Path path, String comment) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, comment);
+        }
+    }
+
+    public static Properties read(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    /**
+     * Сценарии, для которых в baseline нет результатов.
+     *
+     * @param baseline зафиксированные результаты.
+     * @param results  результаты текущего прогона.
+     * @return имена сценариев без результатов в baseline.
+     */
+    public static List<String> missing(Properties baseline, List<ScenarioResult> results) {
+        List<String> missing = new ArrayList<>();
+        for (ScenarioResult result : results) {
+            if (baseline.getProperty(result.name() + ".p99") == null
+                    || baseline.getProperty(result.name() + ".throughput") == null
+                    || baseline.getProperty(result.name() + ".error-rate") == null) {
+                missing.add(result.name());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Поиск регрессий относительно baseline.
+     *
+     * @param baseline  зафиксированные результаты.
+     * @param results   результаты текущего прогона.
+     * @param tolerance допустимое относительное отклонение, например 0.2.
+     * @return описания найденных регрессий, пустой список если их нет.
+     */
+    public static List<String> regressions(Properties baseline, List<ScenarioResult> results, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (ScenarioResult result : results) {
+            String p99 = baseline.getProperty(result.name() + ".p99");
+            String throughput = baseline.getProperty(result.name() + ".throughput");
+            String errorRate = baseline.getProperty(result.name() + ".error-rate");
+            if (p99 != null && result.percentileMicros(0.99) > Long.parseLong(p99) * (1 + tolerance)) {
+                regressions.add(String.format("%s: p99 %d us > baseline %s us",
+                        result.name(), result.percentileMicros(0.99), p99));
+            }
+            if (throughput != null && result.throughput() < Double.parseDouble(throughput) * (1 - tolerance)) {
+                regressions.add(String.format("%s: throughput %.1f req/s < baseline %s req/s",
+                        result.name(), result.throughput(), throughput));
+            }
+            if (errorRate != null && result.errorRate() > Double.parseDouble(errorRate) + 0.001) {
+                regressions.add(String.format("%s: error rate %.5f > baseline %s",
+                        result.name(), result.errorRate(), errorRate));
+            }
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,113 @@
+package school.faang.springsecuritydemo.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Запуск сценариев нагрузки в закрытой модели: каждый виртуальный пользователь отправляет
+ * следующий запрос сразу после ответа на предыдущий.
+ * <p>
+ * Сначала выполняется прогрев, результаты которого отбрасываются, затем окно измерения.
+ * Задержки пишутся в собственный массив каждого потока, чтобы замеры не конкурировали между собой.
+ */
+public class LoadRunner {
+
+    private final Duration warmup;
+    private final Duration duration;
+
+    public LoadRunner(Duration warmup, Duration duration) {
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    public ScenarioResult run(LoadScenario scenario) throws Exception {
+        CountDownLatch ready = new CountDownLatch(scenario.concurrency());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Worker>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Worker[] workers = new Worker[scenario.concurrency()];
+            long[] window = new long[2];
+            for (int i = 0; i < workers.length; i++) {
+                int worker = i;
+                futures.add(executor.submit(() -> {
+                    // Подготовка пользователя (например, логин) не входит в замеры
+                    Worker state = new Worker(scenario.factory().create(worker));
+                    ready.countDown();
+                    start.await();
+                    state.loop(window[0], window[1]);
+                    return state;
+                }));
+            }
+            ready.await();
+            long now = System.nanoTime();
+            window[0] = now + warmup.toNanos();
+            window[1] = window[0] + duration.toNanos();
+            start.countDown();
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = futures.get(i).get();
+            }
+            return collect(scenario.name(), workers);
+        }
+    }
+
+    private ScenarioResult collect(String name, Worker[] workers) {
+        int total = 0;
+        long errors = 0;
+        for (Worker worker : workers) {
+            total += worker.count;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        return ScenarioResult.of(name, errors, duration, latencies);
+    }
+
+    private static final class Worker {
+
+        private final LoadScenario.VirtualUser user;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        private Worker(LoadScenario.VirtualUser user) {
+            this.user = user;
+        }
+
+        private void loop(long measureFrom, long measureTo) {
+            long now = System.nanoTime();
+            while (now < measureTo) {
+                boolean success;
+                try {
+                    success = user.iterate();
+                } catch (Exception e) {
+                    success = false;
+                }
+                long finished = System.nanoTime();
+                if (now >= measureFrom) {
+                    record(finished - now, success);
+                }
+                now = finished;
+            }
+        }
+
+        private void record(long latency, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (!success) {
+                errors++;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package school.faang.springsecuritydemo.loadtest;
+
+/**
+ * Сценарий нагрузки: имя и фабрика виртуальных пользователей.
+ * <p>
+ * Каждый поток нагрузки создает своего {@link VirtualUser} через фабрику, поэтому пользователь
+ * может хранить состояние между итерациями (например, текущий refresh-токен).
+ *
+ * @param name        имя сценария, используется как префикс в отчете и в baseline.
+ * @param concurrency количество одновременных виртуальных пользователей.
+ * @param factory     фабрика виртуальных пользователей, получает номер потока.
+ */
+public record LoadScenario(String name, int concurrency, VirtualUserFactory factory) {
+
+    /**
+     * Виртуальный пользователь, выполняющий одну итерацию сценария.
+     */
+    @FunctionalInterface
+    public interface VirtualUser {
+
+        /**
+         * Выполнение одного запроса сценария.
+         *
+         * @return {@code true}, если ответ соответствует ожидаемому.
+         * @throws Exception ошибка выполнения запроса, считается ошибкой сценария.
+         */
+        boolean iterate() throws Exception;
+    }
+
+    /**
+     * Фабрика виртуальных пользователей. Время подготовки пользователя не входит в замеры.
+     */
+    @FunctionalInterface
+    public interface VirtualUserFactory {
+
+        VirtualUser create(int worker) throws Exception;
+    }
+}
@@ -0,0 +1,56 @@
+package school.faang.springsecuritydemo.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Результат прогона сценария: количество запросов, ошибок и отсортированные задержки.
+ *
+ * @param name      имя сценария.
+ * @param requests  количество выполненных запросов в окне измерения.
+ * @param errors    количество запросов с неожиданным ответом или исключением.
+ * @param elapsed   длительность окна измерения.
+ * @param latencies задержки запросов в наносекундах, отсортированные по возрастанию.
+ */
+public record ScenarioResult(String name, long requests, long errors, Duration elapsed, long[] latencies) {
+
+    public static ScenarioResult of(String name, long errors, Duration elapsed, long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return new ScenarioResult(name, sorted.length, errors, elapsed, sorted);
+    }
+
+    /**
+     * Пропускная способность в запросах в секунду.
+     */
+    public double throughput() {
+        return requests / (elapsed.toNanos() / 1_000_000_000.0);
+    }
+
+    /**
+     * Доля ошибочных запросов от 0 до 1.
+     */
+    public double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    /**
+     * Перцентиль задержки в микросекундах.
+     *
+     * @param percentile перцентиль от 0 до 1, например 0.99.
+     */
+    public long percentileMicros(double percentile) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * latencies.length) - 1;
+        return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1_000;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-18s %8d req %10.1f req/s  p50 %7d us  p99 %8d us  p999 %8d us  errors %.3f%%",
+                name, requests, throughput(), percentileMicros(0.50), percentileMicros(0.99),
+                percentileMicros(0.999), errorRate() * 100);
+    }
+}
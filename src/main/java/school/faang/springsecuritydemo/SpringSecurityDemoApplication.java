@@ -2,8 +2,13 @@ package school.faang.springsecuritydemo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import school.faang.springsecuritydemo.config.NativeRuntimeHints;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class SpringSecurityDemoApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,44 @@
+package school.faang.springsecuritydemo.audit;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки журнала логинов и обновлений токенов.
+ * <p>
+ * Все значения берутся из конфигурационного файла с префиксом `audit`.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "audit")
+public class AuditProperties {
+
+    /**
+     * Включение записи журнала
+     */
+    private boolean enabled = true;
+
+    /**
+     * Емкость буфера событий, при заполнении новые события отбрасываются
+     */
+    private int capacity = 10000;
+
+    /**
+     * Максимальное количество событий в одном INSERT
+     */
+    private int batchSize = 500;
+
+    /**
+     * Максимальное время ожидания пакета, а также пауза перед повтором после ошибки записи
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * На сколько месяцев вперед создаются секции таблицы `login_audit`
+     */
+    private int partitionsAhead = 2;
+}
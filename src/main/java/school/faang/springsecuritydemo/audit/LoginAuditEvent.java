@@ -0,0 +1,27 @@
+package school.faang.springsecuritydemo.audit;
+
+import java.time.Instant;
+
+/**
+ * Событие журнала логинов.
+ *
+ * @param type       логин или обновление токенов.
+ * @param result     результат попытки.
+ * @param userId     идентификатор пользователя, если он известен.
+ * @param username   имя пользователя из запроса логина.
+ * @param clientIp   адрес клиента.
+ * @param occurredAt время попытки.
+ */
+public record LoginAuditEvent(Type type, Result result, Long userId, String username, String clientIp,
+                              Instant occurredAt) {
+
+    public enum Type {
+        LOGIN,
+        REFRESH
+    }
+
+    public enum Result {
+        SUCCESS,
+        FAILURE
+    }
+}
@@ -0,0 +1,40 @@
+package school.faang.springsecuritydemo.audit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Создание месячных секций таблицы `login_audit` заранее.
+ * <p>
+ * Секции создаются при старте и ежедневно на `audit.partitions-ahead` месяцев вперед функцией
+ * `create_login_audit_partitions` из миграции. Создание идемпотентно, поэтому одновременный запуск
+ * на нескольких экземплярах безопасен.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginAuditPartitionMaintainer {
+
+    private final AuditProperties properties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${audit.partition-cron:0 0 3 * * *}", zone = "UTC")
+    public void createPartitions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("SELECT create_login_audit_partitions(" + properties.getPartitionsAhead() + ")");
+        } catch (DataAccessException e) {
+            log.error("Не удалось создать секции журнала логинов", e);
+        }
+    }
+}
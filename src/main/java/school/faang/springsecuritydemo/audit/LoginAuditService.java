@@ -0,0 +1,252 @@
+package school.faang.springsecuritydemo.audit;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Асинхронная запись журнала логинов и обновлений токенов в таблицу `login_audit`.
+ * <p>
+ * {@link #record(LoginAuditEvent)} только кладет событие в ограниченный буфер и не ждет базу данных.
+ * Отдельный поток забирает события пакетами до `audit.batch-size` (или то, что накопилось
+ * за `audit.flush-interval`) и записывает каждый пакет одним многострочным INSERT.
+ * <p>
+ * Поведение при перегрузке: если буфер заполнен (база недоступна или не успевает), новое событие
+ * отбрасывается, счетчик {@link #getDropped()} увеличивается, а поток записи раз в цикл пишет
+ * в лог, сколько событий потеряно. Логин при этом не замедляется и не завершается ошибкой.
+ * Пакет, который не удалось записать из-за временной ошибки или недоступной базы, повторяется
+ * после паузы, поэтому при недоступной базе в памяти держится не больше
+ * `audit.capacity + audit.batch-size` событий. Пакет, отклоненный базой (нарушение ограничения,
+ * ошибка в данных), не повторяется: он записывается половинами, а отклоненные по одному события
+ * отбрасываются и тоже учитываются в {@link #getDropped()}.
+ * При остановке приложения оставшиеся события записываются одной последней попыткой.
+ * <p>
+ * Сервис запускается раньше и останавливается позже веб-сервера ({@link #PHASE}), поэтому
+ * запросы, завершающиеся при плавной остановке, еще попадают в журнал. События, пришедшие
+ * вне работы сервиса, не ставятся в очередь и учитываются в {@link #getDropped()}.
+ */
+@Slf4j
+@Service
+public class LoginAuditService implements SmartLifecycle {
+
+    /**
+     * Фаза жизненного цикла ниже фаз веб-сервера (`DEFAULT_PHASE - 1024` и `DEFAULT_PHASE - 2048`)
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final String THREAD_NAME = "login-audit-writer";
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO login_audit (occurred_at, type, result, user_id, username, client_ip) VALUES ";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?)";
+
+    // Имя пользователя в неудачных попытках приходит от клиента и обрезается
+    private static final int MAX_USERNAME_LENGTH = 64;
+
+    // Длина `login_audit.client_ip`, адрес берется из заголовков запроса и обрезается
+    private static final int MAX_CLIENT_IP_LENGTH = 45;
+
+    private final AuditProperties properties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BlockingQueue<LoginAuditEvent> queue;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Значение счетчика потерь, о котором уже сообщено в лог, доступно только потоку записи
+    private long reportedDropped;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public LoginAuditService(AuditProperties properties, JdbcTemplate jdbcTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+    }
+
+    /**
+     * Постановка события в очередь на запись без ожидания.
+     *
+     * @param event событие журнала.
+     */
+    public void record(LoginAuditEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!running || !queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return количество событий, отброшенных из-за заполненного буфера, остановленного сервиса
+     * или отклоненных базой данных.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        if (properties.isEnabled()) {
+            thread = new Thread(this::run, THREAD_NAME);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(properties.getFlushInterval().toMillis() + 5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void run() {
+        List<LoginAuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                if (batch.isEmpty()) {
+                    LoginAuditEvent first = queue.poll(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, properties.getBatchSize() - 1);
+                }
+                reportDropped();
+                if (!write(batch)) {
+                    Thread.sleep(properties.getFlushInterval().toMillis());
+                }
+            } catch (InterruptedException e) {
+                // Остановка: ожидание прерывается, оставшиеся события записываются ниже
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        Thread.interrupted();
+        do {
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            if (!batch.isEmpty() && !write(batch)) {
+                log.error("При остановке не записано событий журнала логинов: {}", batch.size() + queue.size());
+                return;
+            }
+        } while (!queue.isEmpty());
+        reportDropped();
+    }
+
+    /**
+     * Запись пакета. Записанные и отброшенные события удаляются из пакета.
+     *
+     * @param batch пакет событий.
+     * @return {@code false}, если запись нужно повторить: в пакете остались незаписанные события.
+     */
+    private boolean write(List<LoginAuditEvent> batch) {
+        try {
+            insert(batch);
+        } catch (NonTransientDataAccessResourceException e) {
+            // База недоступна, а не отклонила данные: пакет повторяется
+            return retry(batch, e);
+        } catch (NonTransientDataAccessException e) {
+            return reject(batch, e);
+        } catch (DataAccessException e) {
+            return retry(batch, e);
+        }
+        batch.clear();
+        return true;
+    }
+
+    private boolean retry(List<LoginAuditEvent> batch, DataAccessException e) {
+        log.warn("Не удалось записать {} событий журнала логинов, повтор через {} мс",
+                batch.size(), properties.getFlushInterval().toMillis(), e);
+        return false;
+    }
+
+    /**
+     * Запись отклоненного базой пакета половинами, пока отклоненные события не останутся по одному.
+     * Повтор того же INSERT не поможет, поэтому такие события отбрасываются.
+     */
+    private boolean reject(List<LoginAuditEvent> batch, NonTransientDataAccessException e) {
+        if (batch.size() == 1) {
+            log.warn("Событие журнала логинов отклонено базой данных и отброшено: {}", e.getMessage());
+            dropped.incrementAndGet();
+            batch.clear();
+            return true;
+        }
+        // Запись первой половины удаляет ее события из пакета, после чего в пакете остается вторая
+        List<LoginAuditEvent> head = batch.subList(0, batch.size() / 2);
+        return write(head) && write(batch);
+    }
+
+    private void insert(List<LoginAuditEvent> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + batch.size() * (ROW_PLACEHOLDERS.length() + 2))
+                .append(INSERT_PREFIX);
+        Object[] args = new Object[batch.size() * 6];
+        int i = 0;
+        for (LoginAuditEvent event : batch) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args[i++] = Timestamp.from(event.occurredAt());
+            args[i++] = event.type().name();
+            args[i++] = event.result().name();
+            args[i++] = event.userId();
+            args[i++] = truncate(event.username(), MAX_USERNAME_LENGTH);
+            args[i++] = truncate(event.clientIp(), MAX_CLIENT_IP_LENGTH);
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private void reportDropped() {
+        long total = dropped.get();
+        if (total != reportedDropped) {
+            log.warn("Отброшено событий журнала логинов: {} (всего {})",
+                    total - reportedDropped, total);
+            reportedDropped = total;
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
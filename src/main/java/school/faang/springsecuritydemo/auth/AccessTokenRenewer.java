@@ -0,0 +1,94 @@
+package school.faang.springsecuritydemo.auth;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import school.faang.springsecuritydemo.util.AccessTokenClaims;
+import school.faang.springsecuritydemo.util.JwtTokenUtils;
+
+/**
+ * Упреждающее обновление access токенов.
+ * <p>
+ * Если до истечения действующего токена осталось меньше `security.jwt.renew-window`, фильтр запросов
+ * возвращает новый токен в заголовке `security.jwt.renew-header`. Клиент подменяет токен в фоне
+ * и не получает 401 на границе срока действия, а обращения к `/authorization/refresh-tokens`
+ * распределяются во времени.
+ * <p>
+ * Параллельные запросы с одним и тем же токеном получают новый токен не чаще одного раза
+ * за `security.jwt.renew-interval`. Учет ведется по подписи токена и очищается после истечения токена.
+ * <p>
+ * Новый токен сохраняет `auth_time` исходного, поэтому цепочка обновлений не продлевает сессию
+ * дальше `security.jwt.max-session-lifetime` (по умолчанию время жизни refresh-токена). После этого
+ * клиент должен пройти через `/authorization/refresh-tokens`. Токены без `auth_time` не обновляются.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessTokenRenewer {
+
+    // Длина подписи HS256 в base64url, по ней различаются токены
+    private static final int SIGNATURE_LENGTH = 43;
+
+    private final JwtTokenUtils jwtTokenUtils;
+
+    private final SecurityConstants securityConstants;
+
+    // Подпись токена -> время, раньше которого новый токен по нему не выпускается
+    private final ConcurrentMap<String, Renewal> renewals = new ConcurrentHashMap<>();
+
+    // Время следующей очистки истекших записей
+    private final AtomicLong nextPruneAt = new AtomicLong();
+
+    /**
+     * Выпуск нового access токена, если действующий скоро истекает.
+     *
+     * @param token  действующий access токен.
+     * @param claims claims действующего токена.
+     * @return новый access токен или {@code null}, если обновление не требуется, уже выполнено недавно
+     * или сессия превысила максимальную длительность.
+     */
+    public String renewIfExpiring(String token, AccessTokenClaims claims) {
+        long window = securityConstants.getRenewWindow();
+        long now = System.currentTimeMillis();
+        // Токены без срока действия, принятые jjwt, имеют expiresAt = Long.MAX_VALUE
+        long expiresAt = claims.expiresAt() > Long.MAX_VALUE / 1000 ? Long.MAX_VALUE : claims.expiresAt() * 1000;
+        if (window <= 0 || expiresAt - now > window || token.length() < SIGNATURE_LENGTH) {
+            return null;
+        }
+        if (claims.authTime() <= 0
+                || now - claims.authTime() * 1000 >= securityConstants.getEffectiveMaxSessionLifetime()) {
+            return null;
+        }
+        pruneExpired(now);
+
+        String key = token.substring(token.length() - SIGNATURE_LENGTH);
+        long interval = securityConstants.getRenewInterval();
+        boolean[] acquired = new boolean[1];
+        renewals.compute(key, (k, renewal) -> {
+            if (renewal != null && now < renewal.notBefore()) {
+                return renewal;
+            }
+            acquired[0] = true;
+            return new Renewal(now + interval, expiresAt);
+        });
+        return acquired[0] ? jwtTokenUtils.generateAccessToken(claims) : null;
+    }
+
+    private void pruneExpired(long now) {
+        long pruneAt = nextPruneAt.get();
+        if (now < pruneAt || !nextPruneAt.compareAndSet(pruneAt, now + securityConstants.getRenewWindow())) {
+            return;
+        }
+        renewals.values().removeIf(renewal -> renewal.expiresAt() < now);
+    }
+
+    /**
+     * Учет выпуска нового токена.
+     *
+     * @param notBefore время, раньше которого новый токен не выпускается.
+     * @param expiresAt время истечения исходного токена.
+     */
+    private record Renewal(long notBefore, long expiresAt) {
+    }
+}
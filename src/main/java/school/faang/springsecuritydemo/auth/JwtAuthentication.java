@@ -0,0 +1,94 @@
+package school.faang.springsecuritydemo.auth;
+
+import java.io.Serial;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Неизменяемая аутентификация по проверенному access-токену.
+ * <p>
+ * В отличие от `UsernamePasswordAuthenticationToken` не копирует список прав при создании:
+ * права с учетом иерархии ролей передаются готовым неизменяемым набором, общим для всех запросов
+ * с теми же ролями (см. `RoleHierarchyService`).
+ * Объект создается уже аутентифицированным и не может быть переведен в другое состояние.
+ */
+public final class JwtAuthentication implements Authentication {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Пользователь из claims токена
+     */
+    private final JwtPrincipal principal;
+
+    /**
+     * Роли из claims токена, список не изменяется после создания объекта
+     */
+    private final List<String> roles;
+
+    /**
+     * Действующие права: роли токена и включенные в них роли
+     */
+    private final Collection<GrantedAuthority> authorities;
+
+    /**
+     * @param principal   пользователь из claims токена.
+     * @param roles       роли из claims токена, список не должен изменяться после передачи.
+     * @param authorities действующие права с учетом иерархии ролей, неизменяемый набор.
+     */
+    public JwtAuthentication(JwtPrincipal principal, List<String> roles,
+                             Collection<GrantedAuthority> authorities) {
+        this.principal = principal;
+        this.roles = roles != null ? roles : List.of();
+        this.authorities = authorities;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public JwtPrincipal getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (!isAuthenticated) {
+            throw new IllegalArgumentException("JwtAuthentication не может быть переведен в неаутентифицированное состояние");
+        }
+    }
+
+    @Override
+    public String getName() {
+        return principal.username();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [Principal=" + principal + ", Roles=" + roles + "]";
+    }
+}
@@ -0,0 +1,21 @@
+package school.faang.springsecuritydemo.auth;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal аутентифицированного по access-токену пользователя.
+ * <p>
+ * Заполняется в {@link JwtRequestFilter} из claims токена и позволяет получать данные
+ * о текущем пользователе без обращения к базе данных.
+ *
+ * @param id       идентификатор пользователя из claim `uid`, может отсутствовать в токенах,
+ *                 выпущенных до его появления.
+ * @param username имя пользователя из claim `sub`.
+ */
+public record JwtPrincipal(Long id, String username) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
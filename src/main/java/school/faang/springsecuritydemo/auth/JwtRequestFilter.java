@@ -1,6 +1,5 @@
 package school.faang.springsecuritydemo.auth;
 
-import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,18 +7,21 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import school.faang.springsecuritydemo.service.RoleHierarchyService;
+import school.faang.springsecuritydemo.service.UserActivityTracker;
+import school.faang.springsecuritydemo.util.AccessTokenClaims;
 import school.faang.springsecuritydemo.util.JwtTokenUtils;
 
 /**
  * Фильтр для обработки JWT-токенов в запросах.
  * <p>
  * Этот фильтр извлекает JWT-токен из заголовка авторизации запроса, проверяет его валидность
- * и, если токен действителен, извлекает имя пользователя и роли, добавляя их в контекст безопасности Spring Security.
+ * и, если токен действителен, извлекает идентификатор, имя пользователя и роли, добавляя их в контекст безопасности Spring Security.
+ * Если токен скоро истекает, новый токен возвращается в заголовке ответа (см. {@link AccessTokenRenewer}).
  * Это необходимо для аутентификации и авторизации пользователя в приложении.
  */
 @Component
@@ -37,6 +39,31 @@ public class JwtRequestFilter extends OncePerRequestFilter {
      */
     private final SecurityConstants securityConstants;
 
+    /**
+     * Упреждающий выпуск access токена перед истечением текущего
+     */
+    private final AccessTokenRenewer accessTokenRenewer;
+
+    /**
+     * Иерархия ролей для вычисления действующих прав
+     */
+    private final RoleHierarchyService roleHierarchyService;
+
+    /**
+     * Учет времени последнего запроса пользователя
+     */
+    private final UserActivityTracker userActivityTracker;
+
+    /**
+     * Отзыв access токенов после изменения ролей пользователя
+     */
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    /**
+     * Стратегия хранения контекста безопасности, получается один раз при создании фильтра
+     */
+    private final SecurityContextHolderStrategy securityContextHolderStrategy =
+            SecurityContextHolder.getContextHolderStrategy();
 
     /**
      * Метод, выполняющий фильтрацию запросов.
@@ -56,29 +83,35 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         var authHeader = request.getHeader(securityConstants.getAuthHeader());
         var bearerPrefix = securityConstants.getBearerPrefix();
-        String username = null;
-        String accessToken = null;
+        AccessTokenClaims claims = null;
         if (authHeader != null && authHeader.startsWith(bearerPrefix)) {
-            accessToken = authHeader.substring(bearerPrefix.length());
-            try {
-                username =
-                        jwtTokenUtils.getUsername(accessToken, securityConstants.getAccessSecret());
-            } catch (ExpiredJwtException e) {
-                log.error("Время жизни токена истекло");
-            } catch (SecurityException e) {
-                log.error(e.getMessage());
+            var accessToken = authHeader.substring(bearerPrefix.length());
+            var verification = jwtTokenUtils.verifyAccessToken(accessToken);
+            switch (verification.status()) {
+                case VALID -> {
+                    // Отозванный токен не обновляется, иначе новый токен получил бы старые роли
+                    if (tokenRevocationRegistry.isRevoked(verification.claims())) {
+                        log.error("Токен отозван после изменения ролей пользователя");
+                        break;
+                    }
+                    claims = verification.claims();
+                    userActivityTracker.recordSeen(claims.userId());
+                    var renewedToken = accessTokenRenewer.renewIfExpiring(accessToken, claims);
+                    if (renewedToken != null) {
+                        response.setHeader(securityConstants.getRenewHeader(), renewedToken);
+                    }
+                }
+                case EXPIRED -> log.error("Время жизни токена истекло");
+                case INVALID_SIGNATURE -> log.error("Подпись токена недействительна");
+                default -> log.error("Токен имеет некорректный формат");
             }
         }
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var roles = jwtTokenUtils.getRoles(accessToken, securityConstants.getAccessSecret())
-                    .stream()
-                    .map(SimpleGrantedAuthority::new)
-                    .toList();
-            UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
-                    username, null, roles
-
-            );
-            SecurityContextHolder.getContext().setAuthentication(token);
+        if (claims != null && securityContextHolderStrategy.getContext().getAuthentication() == null) {
+            var principal = new JwtPrincipal(claims.userId(), claims.subject());
+            var context = securityContextHolderStrategy.createEmptyContext();
+            context.setAuthentication(new JwtAuthentication(principal, claims.roles(),
+                    roleHierarchyService.getAuthorities(claims.roles())));
+            securityContextHolderStrategy.setContext(context);
         }
         filterChain.doFilter(request, response);
     }
@@ -3,6 +3,7 @@ package school.faang.springsecuritydemo.auth;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import school.faang.springsecuritydemo.profiling.PasswordMatchEvent;
 
 /**
  * Конфигурация для создания и настройки BCryptPasswordEncoder.
@@ -22,9 +23,32 @@ public class PasswordEncoderConfig {
      * @return новый экземпляр BCryptPasswordEncoder с 12 итерациями.
      * Количество итераций (12) отвечает за сложность хеширования: чем больше значение,
      * тем безопаснее, но и более ресурсоемко.
+     * Каждое сравнение пароля отмечается событием JFR {@link PasswordMatchEvent}.
      */
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        return new ProfiledBCryptPasswordEncoder(12);
+    }
+
+    /**
+     * BCryptPasswordEncoder, отмечающий сравнение пароля событием JFR.
+     */
+    static class ProfiledBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        ProfiledBCryptPasswordEncoder(int strength) {
+            super(strength);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            var event = new PasswordMatchEvent();
+            event.begin();
+            boolean matched = super.matches(rawPassword, encodedPassword);
+            if (event.shouldCommit()) {
+                event.matched = matched;
+                event.commit();
+            }
+            return matched;
+        }
     }
 }
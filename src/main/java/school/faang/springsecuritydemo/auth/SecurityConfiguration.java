@@ -1,5 +1,6 @@
 package school.faang.springsecuritydemo.auth;
 
+import jakarta.servlet.DispatcherType;
 import java.util.Arrays;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -10,12 +11,14 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.NullSecurityContextRepository;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -36,8 +39,8 @@ public class SecurityConfiguration {
      * <p>
      * Отключает CSRF и CORS, настраивает маршруты для публичного доступа,
      * а также указывает, что для всех других запросов требуется аутентификация.
-     * Конфигурирует управление сессиями для использования без состояния (stateless),
-     * что подходит для приложений, использующих JWT для аутентификации.
+     * Фильтры, которые нужны только приложениям с сессиями, не устанавливаются
+     * (см. {@link #disableStatefulFilters(HttpSecurity)}).
      *
      * @param http HttpSecurity, который используется для настройки безопасности.
      * @return настроенный SecurityFilterChain.
@@ -49,16 +52,47 @@ public class SecurityConfiguration {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.disable())
                 .authorizeHttpRequests(req -> req
+                        // Запрос уже авторизован при первом проходе, повторный (после StreamingResponseBody) пропускается
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(this.getIgnoredPaths()) // Игнорируемые маршруты
                         .permitAll() // Публичный доступ
                         .anyRequest()
                         .authenticated()) // Все остальные запросы требуют аутентификации
-                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // Отключение сессий
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))) // Обработка ошибок аутентификации
                 .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class); // Добавление фильтра для JWT
+        disableStatefulFilters(http); // Отключение сессий и лишних фильтров
         return http.build(); // Строим и возвращаем конфигурацию безопасности
     }
 
+    /**
+     * Отключает фильтры, которые не нужны API без состояния с bearer токенами.
+     * <p>
+     * Аутентификация восстанавливается из токена на каждый запрос, поэтому контекст безопасности
+     * не сохраняется ({@link NullSecurityContextRepository}), а сессии, кэш запросов для редиректа
+     * после логина, анонимная аутентификация, обертка servlet API и `/logout` не используются.
+     * Без анонимной аутентификации запрос без токена к защищенному маршруту по-прежнему получает 401
+     * через точку входа, а отказ по роли (в том числе в {@code @PreAuthorize}) - 403.
+     * Из заголовков ответа остаются только `Cache-Control` (ответы с токенами не кэшируются)
+     * и `X-Content-Type-Options`.
+     *
+     * @param http HttpSecurity, который используется для настройки безопасности.
+     * @return тот же HttpSecurity.
+     * @throws Exception если возникнут ошибки при конфигурации.
+     */
+    public static HttpSecurity disableStatefulFilters(HttpSecurity http) throws Exception {
+        return http
+                .sessionManagement(AbstractHttpConfigurer::disable)
+                .securityContext(context -> context.securityContextRepository(new NullSecurityContextRepository()))
+                .requestCache(AbstractHttpConfigurer::disable)
+                .anonymous(AbstractHttpConfigurer::disable)
+                .servletApi(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .headers(headers -> headers
+                        .defaultsDisabled()
+                        .cacheControl(Customizer.withDefaults())
+                        .contentTypeOptions(Customizer.withDefaults()));
+    }
+
 
     /**
      * Возвращает список путей, которые не требуют аутентификации.
@@ -71,7 +105,8 @@ public class SecurityConfiguration {
         return new String[] {
                 "/authorization/login", // Маршрут для логина
                 "/authorization/refresh-tokens", // Маршрут для обновления токенов
-                "/test/unsecured" // Пример маршрута, который не защищен
+                "/test/unsecured", // Пример маршрута, который не защищен
+                "/actuator/health/**" // Пробы liveness и readiness
         };
     }
 
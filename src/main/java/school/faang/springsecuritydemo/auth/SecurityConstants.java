@@ -13,7 +13,10 @@ import org.springframework.stereotype.Component;
  * - заголовок авторизации,<br/>
  * - префикс "Bearer",<br/>
  * - секретные ключи для доступа и обновления,<br/>
- * - время жизни токенов.<br/>
+ * - время жизни токенов,<br/>
+ * - формат refresh-токенов,<br/>
+ * - окно объединения повторных запросов выдачи токенов,<br/>
+ * - параметры упреждающего обновления access токена.<br/>
  * <p>
  * Все значения берутся из конфигурационного файла (например, `application.properties` или `application.yml`)
  * с префиксом `security.jwt`.
@@ -54,5 +57,56 @@ public class SecurityConstants {
      * Время жизни токена обновления в миллисекундах
      */
     private Integer refreshLifetime;
-}
 
+    /**
+     * Формат выпускаемых refresh-токенов
+     */
+    private RefreshTokenMode refreshTokenMode = RefreshTokenMode.OPAQUE;
+
+    /**
+     * Окно в миллисекундах, в течение которого повторные запросы логина (с тем же Idempotency-Key)
+     * и обновления (с тем же refresh-токеном) получают уже выданный результат
+     */
+    private Integer coalescingWindow;
+
+    /**
+     * Заголовок ответа, в котором передается обновленный access токен
+     */
+    private String renewHeader;
+
+    /**
+     * Окно в миллисекундах до истечения access токена, в котором фильтр выпускает новый токен.
+     * Значение 0 отключает упреждающее обновление
+     */
+    private Integer renewWindow;
+
+    /**
+     * Минимальный интервал в миллисекундах между выпусками нового токена по одному и тому же access токену
+     */
+    private Integer renewInterval;
+
+    /**
+     * Максимальная длительность сессии в миллисекундах от исходной аутентификации (claim `auth_time`),
+     * после которой упреждающее обновление не выполняется. Если не задано, используется время жизни refresh-токена
+     */
+    private Integer maxSessionLifetime;
+
+    /**
+     * Действующее ограничение длительности сессии в миллисекундах.
+     *
+     * @return `maxSessionLifetime`, если задано, иначе `refreshLifetime`.
+     */
+    public long getEffectiveMaxSessionLifetime() {
+        return maxSessionLifetime != null ? maxSessionLifetime : refreshLifetime;
+    }
+
+    /**
+     * Формат refresh-токенов.
+     */
+    public enum RefreshTokenMode {
+        // Случайные 32 байта в base64url, проверяются только поиском дайджеста в базе данных
+        OPAQUE,
+        // Подписанный JWT, перед поиском в базе данных проверяется подпись
+        JWT
+    }
+}
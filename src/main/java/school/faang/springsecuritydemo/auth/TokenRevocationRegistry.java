@@ -0,0 +1,103 @@
+package school.faang.springsecuritydemo.auth;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import school.faang.springsecuritydemo.invalidation.InvalidationEvent;
+import school.faang.springsecuritydemo.invalidation.InvalidationListener;
+import school.faang.springsecuritydemo.repository.UserRepository;
+import school.faang.springsecuritydemo.util.AccessTokenClaims;
+
+/**
+ * Отзыв access токенов пользователей, у которых изменились роли.
+ * <p>
+ * По событию {@link InvalidationEvent.Topic#TOKEN} запоминается время отзыва для пользователя,
+ * и все его access токены, выпущенные не позже этого времени, перестают приниматься фильтром.
+ * Время отзыва берется из события, то есть по часам экземпляра, изменившего роли, а не по часам
+ * получателя. Клиент получает 401 и обновляет токены через refresh-токен, новый access токен
+ * содержит актуальные роли. Время выпуска токена хранится с точностью до секунды, поэтому токен,
+ * выпущенный в ту же секунду, что и отзыв, тоже отклоняется: он мог содержать старые роли.
+ * Обновление, выполненное в эту же секунду, придется повторить.
+ * <p>
+ * Время изменения ролей хранится и в `users.roles_changed_at`. При старте экземпляра и после
+ * переподключения шины отзывы за последнее время жизни access токена загружаются из базы,
+ * поэтому события, пропущенные без подписки, не оставляют токены со старыми ролями действительными.
+ * <p>
+ * Запись хранится не дольше времени жизни access токена: более старые токены истекли сами.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry implements InvalidationListener, SmartInitializingSingleton {
+
+    private final SecurityConstants securityConstants;
+
+    private final UserRepository userRepository;
+
+    // Идентификатор пользователя -> время отзыва его токенов (секунды)
+    private final ConcurrentMap<Long, Long> revokedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Проверка, отозван ли действительный по подписи и сроку access токен.
+     *
+     * @param claims claims access токена.
+     * @return {@code true}, если токен выпущен до отзыва токенов пользователя или в ту же секунду.
+     */
+    public boolean isRevoked(AccessTokenClaims claims) {
+        if (claims.userId() == null || revokedAt.isEmpty()) {
+            return false;
+        }
+        Long at = revokedAt.get(claims.userId());
+        return at != null && claims.issuedAt() <= at;
+    }
+
+    /**
+     * Загрузка отзывов из базы до запуска веб-сервера.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.topic() == InvalidationEvent.Topic.TOKEN) {
+            revoke(Long.valueOf(event.key()), event.publishedAt() / 1000);
+        }
+    }
+
+    @Override
+    public void onResync() {
+        // Известные отзывы остаются в силе, пропущенные без подписки восстанавливаются из базы
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.error("Не удалось загрузить отзывы токенов после переподключения шины", e);
+        }
+    }
+
+    /**
+     * Удаление записей старше времени жизни access токена.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void prune() {
+        long expiredBefore = (System.currentTimeMillis() - securityConstants.getAccessLifetime()) / 1000;
+        revokedAt.values().removeIf(at -> at < expiredBefore);
+    }
+
+    private void load() {
+        Instant since = Instant.now().minusMillis(securityConstants.getAccessLifetime());
+        for (UserRepository.RolesChange change : userRepository.findRolesChangedSince(since)) {
+            revoke(change.getUserId(), change.getChangedAtSeconds());
+        }
+    }
+
+    private void revoke(Long userId, long atSeconds) {
+        revokedAt.merge(userId, atSeconds, Math::max);
+    }
+}
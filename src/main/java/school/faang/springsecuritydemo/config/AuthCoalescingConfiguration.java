@@ -0,0 +1,26 @@
+package school.faang.springsecuritydemo.config;
+
+import java.time.Duration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import school.faang.springsecuritydemo.auth.SecurityConstants;
+import school.faang.springsecuritydemo.dto.response.JwtResponse;
+import school.faang.springsecuritydemo.util.SingleFlight;
+
+/**
+ * Конфигурация объединения повторных запросов логина и обновления токенов.
+ */
+@Configuration
+public class AuthCoalescingConfiguration {
+
+    /**
+     * Общий single-flight для выдачи токенов. Ключи логина и обновления различаются префиксом.
+     *
+     * @param securityConstants настройки безопасности с окном объединения запросов.
+     * @return single-flight для результатов выдачи токенов.
+     */
+    @Bean
+    public SingleFlight<String, JwtResponse> authSingleFlight(SecurityConstants securityConstants) {
+        return new SingleFlight<>(Duration.ofMillis(securityConstants.getCoalescingWindow()));
+    }
+}
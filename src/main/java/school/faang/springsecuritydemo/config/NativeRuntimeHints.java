@@ -0,0 +1,54 @@
+package school.faang.springsecuritydemo.config;
+
+import java.util.List;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import school.faang.springsecuritydemo.auth.SecurityConstants;
+import school.faang.springsecuritydemo.domain.RefreshToken;
+import school.faang.springsecuritydemo.domain.Role;
+import school.faang.springsecuritydemo.domain.User;
+
+/**
+ * Подсказки для GraalVM native-image, которые не выводятся автоматически при AOT-обработке.
+ * <p>
+ * jjwt создает реализации через рефлексию по имени класса, а сериализатор JSON находит
+ * через `ServiceLoader`. Сущности с методами Lombok и `SecurityConstants` регистрируются
+ * явно, чтобы Hibernate и биндинг свойств не зависели от эвристик AOT.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * Классы jjwt, создаваемые через `io.jsonwebtoken.lang.Classes.newInstance`
+     */
+    private static final List<String> JJWT_REFLECTIVE_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        JJWT_REFLECTIVE_TYPES.forEach(type -> hints.reflection().registerType(
+                TypeReference.of(type),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+        for (Class<?> entity : List.of(User.class, Role.class, RefreshToken.class)) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                SecurityConstants.class);
+    }
+}
@@ -0,0 +1,50 @@
+package school.faang.springsecuritydemo.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Параметры подключения к основной базе для компонентов, которые открывают соединения сами.
+ * <p>
+ * Берутся из бина `JdbcConnectionDetails`, если он есть (автоконфигурация `DataSource`
+ * или `@ServiceConnection` в тестах с Testcontainers), иначе из свойств `spring.datasource`.
+ * Так собственные соединения всегда идут в ту же базу, что и пул приложения.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrimaryConnectionDetails {
+
+    private final ObjectProvider<JdbcConnectionDetails> connectionDetails;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    /**
+     * @return параметры подключения к основной базе.
+     */
+    public JdbcConnectionDetails get() {
+        return connectionDetails.getIfAvailable(() -> new JdbcConnectionDetails() {
+            @Override
+            public String getJdbcUrl() {
+                return dataSourceProperties.determineUrl();
+            }
+
+            @Override
+            public String getUsername() {
+                return dataSourceProperties.determineUsername();
+            }
+
+            @Override
+            public String getPassword() {
+                return dataSourceProperties.determinePassword();
+            }
+
+            @Override
+            public String getDriverClassName() {
+                return dataSourceProperties.determineDriverClassName();
+            }
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package school.faang.springsecuritydemo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Конфигурация маршрутизации соединений между основной базой и репликой.
+ * <p>
+ * Основной `DataSource` приложения — это `LazyConnectionDataSourceProxy`, который откладывает
+ * получение физического соединения до первого запроса. К этому моменту транзакция уже помечена
+ * как read-only, и прокси берет соединение из пула реплики, иначе — из пула основной базы.
+ * <p>
+ * Пул реплики получает настройки пула основной базы (`spring.datasource.hikari`), поверх которых
+ * применяются свойства `datasource.replica.hikari`.
+ * <p>
+ * Активируется свойством `datasource.replica.enabled=true`, без него используется
+ * стандартный `DataSource` из автоконфигурации Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+    /**
+     * Пул соединений к основной базе, настраивается свойствами `spring.datasource`.
+     * Параметры подключения берутся из {@link PrimaryConnectionDetails}, как и в автоконфигурации.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(PrimaryConnectionDetails primaryConnectionDetails) {
+        JdbcConnectionDetails connectionDetails = primaryConnectionDetails.get();
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(connectionDetails.getDriverClassName())
+                .url(connectionDetails.getJdbcUrl())
+                .username(connectionDetails.getUsername())
+                .password(connectionDetails.getPassword())
+                .build();
+    }
+
+    /**
+     * Пул соединений к реплике. Соединения открываются в режиме read-only.
+     * <p>
+     * Настройки копируются из пула основной базы, затем привязываются свойства
+     * `datasource.replica.hikari`. Имя пользователя и пароль — от основной базы,
+     * если не заданы для реплики.
+     */
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                              ReplicaDataSourceProperties replicaProperties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        primaryDataSource.copyStateTo(dataSource);
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replicaProperties.getUrl());
+        if (replicaProperties.getUsername() != null) {
+            dataSource.setUsername(replicaProperties.getUsername());
+        }
+        if (replicaProperties.getPassword() != null) {
+            dataSource.setPassword(replicaProperties.getPassword());
+        }
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Маршрутизирующий `DataSource`, который используют JPA, Flyway и остальные компоненты.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") HikariDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
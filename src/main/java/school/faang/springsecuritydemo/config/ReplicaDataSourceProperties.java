@@ -0,0 +1,50 @@
+package school.faang.springsecuritydemo.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки реплики базы данных для read-only транзакций.
+ * <p>
+ * Если реплика включена, транзакции с `readOnly = true` выполняются на ней, а все остальные —
+ * на основной базе из `spring.datasource`. Имя пользователя и пароль по умолчанию берутся
+ * от основной базы. Настройки пула задаются в `datasource.replica.hikari`, по умолчанию
+ * используются настройки пула основной базы `spring.datasource.hikari`.
+ * <p>
+ * Все значения берутся из конфигурационного файла с префиксом `datasource.replica`.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Включение маршрутизации read-only транзакций на реплику
+     */
+    private boolean enabled;
+
+    /**
+     * JDBC URL реплики
+     */
+    private String url;
+
+    /**
+     * Имя пользователя реплики, по умолчанию как у основной базы
+     */
+    private String username;
+
+    /**
+     * Пароль реплики, по умолчанию как у основной базы
+     */
+    private String password;
+
+    /**
+     * Допустимое отставание реплики. Refresh-токены моложе этого значения
+     * не проверяются на реплике, так как могли еще не успеть на нее попасть.
+     */
+    private Duration lagTolerance = Duration.ofSeconds(2);
+}
@@ -0,0 +1,135 @@
+package school.faang.springsecuritydemo.controller;
+
+import java.util.NoSuchElementException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import school.faang.springsecuritydemo.dto.request.RoleAssignmentRequest;
+import school.faang.springsecuritydemo.exception.AppError;
+import school.faang.springsecuritydemo.service.AdminUserService;
+import school.faang.springsecuritydemo.service.RoleAssignmentService;
+
+/**
+ * Администрирование пользователей. Доступно только администраторам.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final AdminUserService adminUserService;
+
+    private final RoleAssignmentService roleAssignmentService;
+
+    /**
+     * Список пользователей с необязательным поиском по префиксу имени или части email.
+     *
+     * @param usernamePrefix префикс имени пользователя.
+     * @param email          часть email.
+     * @param cursor         курсор следующей страницы из предыдущего ответа.
+     * @param limit          размер страницы, не больше {@link AdminUserService#MAX_PAGE_SIZE}.
+     * @return страница пользователей или ошибка в параметрах запроса.
+     */
+    @GetMapping("/users")
+    public ResponseEntity<?> findUsers(@RequestParam(required = false) String usernamePrefix,
+                                       @RequestParam(required = false) String email,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > AdminUserService.MAX_PAGE_SIZE) {
+            return badRequest("Размер страницы должен быть от 1 до " + AdminUserService.MAX_PAGE_SIZE);
+        }
+        if (usernamePrefix != null && email != null) {
+            return badRequest("Поиск возможен либо по имени, либо по email");
+        }
+        if (usernamePrefix != null) {
+            return ResponseEntity.ok(adminUserService.findPageByUsernamePrefix(usernamePrefix, cursor, limit));
+        }
+        if (!adminUserService.isValidIdCursor(cursor)) {
+            return badRequest("Некорректный курсор");
+        }
+        if (email != null) {
+            if (email.length() < AdminUserService.MIN_EMAIL_QUERY_LENGTH) {
+                return badRequest("Строка поиска по email должна содержать не менее "
+                        + AdminUserService.MIN_EMAIL_QUERY_LENGTH + " символов");
+            }
+            return ResponseEntity.ok(adminUserService.findPageByEmail(email, cursor, limit));
+        }
+        return ResponseEntity.ok(adminUserService.findPage(cursor, limit));
+    }
+
+    /**
+     * Выгрузка всех пользователей в формате NDJSON потоком.
+     *
+     * @return тело ответа, которое пишется по мере чтения пользователей из базы данных.
+     */
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(adminUserService::exportUsers);
+    }
+
+    /**
+     * Массовая выдача или отзыв роли пользователям из списка идентификаторов или по запросу
+     * (префикс имени или часть email).
+     *
+     * @param request роль, действие и пользователи.
+     * @return количество подходящих и измененных пользователей или ошибка в параметрах запроса.
+     */
+    @PostMapping("/users/roles")
+    public ResponseEntity<?> assignRole(@RequestBody RoleAssignmentRequest request) {
+        if (request.getRole() == null || request.getRole().isBlank() || request.getAction() == null) {
+            return badRequest("Необходимо указать роль и действие");
+        }
+        int selectors = (request.getUserIds() != null ? 1 : 0)
+                + (request.getUsernamePrefix() != null ? 1 : 0)
+                + (request.getEmail() != null ? 1 : 0);
+        if (selectors != 1) {
+            return badRequest("Пользователи задаются либо списком идентификаторов, либо префиксом имени, либо email");
+        }
+        try {
+            if (request.getUserIds() != null) {
+                if (request.getUserIds().size() > RoleAssignmentService.MAX_USER_IDS) {
+                    return badRequest("Список не может содержать больше "
+                            + RoleAssignmentService.MAX_USER_IDS + " идентификаторов");
+                }
+                if (request.getUserIds().contains(null)) {
+                    return badRequest("Список идентификаторов не может содержать null");
+                }
+                return ResponseEntity.ok(roleAssignmentService.assignToUsers(request.getRole(),
+                        request.getAction(), request.getUserIds()));
+            }
+            if (request.getUsernamePrefix() != null) {
+                if (request.getUsernamePrefix().isEmpty()) {
+                    return badRequest("Префикс имени не может быть пустым");
+                }
+                return ResponseEntity.ok(roleAssignmentService.assignByUsernamePrefix(request.getRole(),
+                        request.getAction(), request.getUsernamePrefix()));
+            }
+            if (request.getEmail().length() < AdminUserService.MIN_EMAIL_QUERY_LENGTH) {
+                return badRequest("Строка поиска по email должна содержать не менее "
+                        + AdminUserService.MIN_EMAIL_QUERY_LENGTH + " символов");
+            }
+            return ResponseEntity.ok(roleAssignmentService.assignByEmail(request.getRole(),
+                    request.getAction(), request.getEmail()));
+        } catch (NoSuchElementException e) {
+            return badRequest("Роль " + request.getRole() + " не найдена");
+        }
+    }
+
+    private static ResponseEntity<AppError> badRequest(String message) {
+        return new ResponseEntity<>(new AppError(HttpStatus.BAD_REQUEST.value(), message), HttpStatus.BAD_REQUEST);
+    }
+}
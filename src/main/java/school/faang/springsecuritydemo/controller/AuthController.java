@@ -1,10 +1,12 @@
 package school.faang.springsecuritydemo.controller;
 
 import jakarta.security.auth.message.AuthException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import school.faang.springsecuritydemo.dto.request.LoginRequest;
@@ -20,14 +22,18 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public JwtResponse createAuthToken(@RequestBody LoginRequest authRequest) {
-        return authService.createAuthToken(authRequest);
+    public JwtResponse createAuthToken(@RequestBody LoginRequest authRequest,
+                                       @RequestHeader(value = "Idempotency-Key", required = false)
+                                       String idempotencyKey,
+                                       HttpServletRequest request) {
+        return authService.createAuthToken(authRequest, idempotencyKey, request.getRemoteAddr());
     }
 
     @PostMapping("/refresh-tokens")
-    public JwtResponse attemptToRefreshToken(@RequestBody UpdateTokenRequest updateTokenRequest)
+    public JwtResponse attemptToRefreshToken(@RequestBody UpdateTokenRequest updateTokenRequest,
+                                             HttpServletRequest request)
             throws AuthException {
-        return authService.attemptToRefreshTokens(updateTokenRequest);
+        return authService.attemptToRefreshTokens(updateTokenRequest, request.getRemoteAddr());
     }
 
     @PostMapping("/registration")
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import school.faang.springsecuritydemo.dto.response.CurrentUserResponse;
 import school.faang.springsecuritydemo.service.UserService;
@@ -32,7 +33,7 @@ public class TestController {
     }
 
     @GetMapping("/current-user")
-    public CurrentUserResponse userData() {
-        return userService.getCurrentUserInfo();
+    public CurrentUserResponse userData(@RequestParam(defaultValue = "false") boolean fresh) {
+        return userService.getCurrentUserInfo(fresh);
     }
 }
\ No newline at end of file
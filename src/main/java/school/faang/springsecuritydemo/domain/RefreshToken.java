@@ -6,11 +6,10 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
-import java.sql.Types;
+import java.time.Instant;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.JdbcTypeCode;
 
 @Entity
 @Getter
@@ -27,12 +26,19 @@ public class RefreshToken {
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
-    @Column(name = "token", nullable = false)
-    private String token;
+    @Column(name = "token_hash", nullable = false)
+    private byte[] tokenHash;
 
-    public RefreshToken(String token, Long userId) {
-        this.token = token;
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public RefreshToken(byte[] tokenHash, Long userId, Instant expiresAt) {
+        this.tokenHash = tokenHash;
         this.userId = userId;
+        this.expiresAt = expiresAt;
     }
 
 }
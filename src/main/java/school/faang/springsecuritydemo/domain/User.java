@@ -9,6 +9,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import java.time.Instant;
 import java.util.Collection;
 import lombok.Data;
 
@@ -30,6 +31,13 @@ public class User {
     @Column(name = "email")
     private String email;
 
+    // Записываются только пакетами из UserActivityTracker
+    @Column(name = "last_login_at", insertable = false, updatable = false)
+    private Instant lastLoginAt;
+
+    @Column(name = "last_seen_at", insertable = false, updatable = false)
+    private Instant lastSeenAt;
+
     @ManyToMany
     @JoinTable(
             name = "users_roles",
@@ -0,0 +1,23 @@
+package school.faang.springsecuritydemo.dto.request;
+
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Массовая выдача или отзыв роли.
+ * <p>
+ * Пользователи задаются либо списком идентификаторов, либо запросом: префиксом имени или частью email.
+ */
+@Data
+public class RoleAssignmentRequest {
+    private String role;
+    private Action action;
+    private List<Long> userIds;
+    private String usernamePrefix;
+    private String email;
+
+    public enum Action {
+        GRANT,
+        REVOKE
+    }
+}
@@ -0,0 +1,22 @@
+package school.faang.springsecuritydemo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import school.faang.springsecuritydemo.dto.request.RoleAssignmentRequest;
+
+@Data
+@AllArgsConstructor
+public class RoleAssignmentResponse {
+    private String role;
+    private RoleAssignmentRequest.Action action;
+
+    /**
+     * Количество пользователей, подходящих под запрос
+     */
+    private long matchedUsers;
+
+    /**
+     * Количество пользователей, у которых роль была выдана или отозвана
+     */
+    private long changedUsers;
+}
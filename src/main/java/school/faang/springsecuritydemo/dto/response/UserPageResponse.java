@@ -0,0 +1,16 @@
+package school.faang.springsecuritydemo.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserPageResponse {
+    private List<UserResponse> users;
+
+    /**
+     * Курсор следующей страницы или {@code null}, если страница последняя
+     */
+    private String nextCursor;
+}
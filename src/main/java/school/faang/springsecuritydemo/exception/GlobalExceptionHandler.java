@@ -1,5 +1,6 @@
 package school.faang.springsecuritydemo.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -15,4 +16,11 @@ public class GlobalExceptionHandler {
                 HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<AppError> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex) {
+        return new ResponseEntity<>(new AppError(HttpStatus.CONFLICT.value(),
+                "Данные конфликтуют с уже существующими"), HttpStatus.CONFLICT);
+    }
+
 }
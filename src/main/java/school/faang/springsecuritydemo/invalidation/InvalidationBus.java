@@ -0,0 +1,339 @@
+package school.faang.springsecuritydemo.invalidation;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import school.faang.springsecuritydemo.config.PrimaryConnectionDetails;
+
+/**
+ * Шина инвалидации локальных кэшей между экземплярами сервиса через Postgres `LISTEN/NOTIFY`.
+ * <p>
+ * Опубликованное событие сразу доставляется локальным получателям и ставится в очередь на отправку.
+ * Поток шины держит отдельное соединение (вне пула) к той же базе, что и пул приложения
+ * ({@link PrimaryConnectionDetails}), и в цикле отправляет накопленные события
+ * одним `pg_notify` на пакет, после чего до `invalidation.poll-interval` ждет уведомлений других
+ * экземпляров. Каждое событие передается строкой `TOPIC:publishedAt:key`, повторы внутри пакета
+ * схлопываются до самого позднего, собственные уведомления отбрасываются по идентификатору экземпляра.
+ * <p>
+ * При потере соединения шина переподключается с экспоненциальной паузой. После каждого
+ * подключения получатели сбрасывают состояние целиком ({@link InvalidationListener#onResync()}),
+ * так как события, отправленные без подписки, Postgres не сохраняет.
+ * <p>
+ * Очередь отправки ограничена `invalidation.max-pending-events`. Если она переполняется (например,
+ * пока соединение недоступно), накопленные события отбрасываются и вместо них отправляется
+ * команда полного сброса, по которой остальные экземпляры вызывают {@link InvalidationListener#onResync()}.
+ */
+@Slf4j
+@Component
+public class InvalidationBus implements SmartLifecycle {
+
+    /**
+     * Имя приложения в `pg_stat_activity` для соединения шины
+     */
+    public static final String APPLICATION_NAME = "invalidation-bus";
+
+    // Payload NOTIFY ограничен 8000 байт
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    // Строка payload, по которой получатели сбрасывают состояние целиком
+    private static final String RESYNC_LINE = "RESYNC";
+
+    private final InvalidationProperties properties;
+
+    private final PrimaryConnectionDetails connectionDetails;
+
+    private final List<InvalidationListener> listeners;
+
+    // Идентификатор экземпляра, первая строка каждого payload
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // События, ожидающие отправки
+    private final Queue<InvalidationEvent> outgoing = new ConcurrentLinkedQueue<>();
+
+    // Размер очереди отправки, size() у ConcurrentLinkedQueue линейный
+    private final AtomicInteger outgoingSize = new AtomicInteger();
+
+    // Очередь отправки переполнилась, вместо событий нужно отправить команду полного сброса
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    // Собранные, но еще не отправленные payload, доступны только потоку шины
+    private final Deque<String> pendingPayloads = new ArrayDeque<>();
+
+    private volatile boolean running;
+
+    private CountDownLatch stopSignal;
+
+    private Thread thread;
+
+    public InvalidationBus(InvalidationProperties properties,
+                           PrimaryConnectionDetails connectionDetails,
+                           List<InvalidationListener> listeners) {
+        this.properties = properties;
+        this.connectionDetails = connectionDetails;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Публикация события для всех экземпляров сервиса, включая текущий.
+     *
+     * @param event событие инвалидации.
+     */
+    public void publish(InvalidationEvent event) {
+        dispatch(event);
+        if (!properties.isEnabled() || overflowed.get()) {
+            return;
+        }
+        if (outgoingSize.incrementAndGet() > properties.getMaxPendingEvents()) {
+            outgoingSize.decrementAndGet();
+            if (overflowed.compareAndSet(false, true)) {
+                log.warn("Очередь шины инвалидации переполнена, будет отправлен полный сброс кэшей");
+            }
+            return;
+        }
+        outgoing.add(event);
+    }
+
+    /**
+     * Публикация набора событий для всех экземпляров сервиса, включая текущий.
+     *
+     * @param events события инвалидации.
+     */
+    public void publishAll(Collection<InvalidationEvent> events) {
+        events.forEach(this::publish);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        if (properties.isEnabled()) {
+            stopSignal = new CountDownLatch(1);
+            thread = new Thread(this::run, APPLICATION_NAME);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (thread != null) {
+            stopSignal.countDown();
+            try {
+                thread.join(properties.getPollInterval().toMillis() + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long backoff = properties.getReconnectBackoff().toMillis();
+        int pollMillis = (int) Math.max(1, properties.getPollInterval().toMillis());
+        while (running) {
+            try (Connection connection = connect()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + quoteIdentifier(properties.getChannel()));
+                }
+                log.info("Шина инвалидации подписана на канал {}", properties.getChannel());
+                backoff = properties.getReconnectBackoff().toMillis();
+                resync();
+
+                try (PreparedStatement notify = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    while (running) {
+                        flush(notify);
+                        receive(pgConnection.getNotifications(pollMillis));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Соединение шины инвалидации потеряно, повтор через {} мс", backoff, e);
+                if (awaitStop(backoff)) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, properties.getMaxReconnectBackoff().toMillis());
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        JdbcConnectionDetails details = connectionDetails.get();
+        Properties info = new Properties();
+        if (details.getUsername() != null) {
+            info.setProperty("user", details.getUsername());
+        }
+        if (details.getPassword() != null) {
+            info.setProperty("password", details.getPassword());
+        }
+        info.setProperty("ApplicationName", APPLICATION_NAME);
+        info.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(details.getJdbcUrl(), info);
+    }
+
+    /**
+     * Отправка накопленных событий: повторы схлопываются, события упаковываются в payload до 8000 байт.
+     */
+    private void flush(PreparedStatement notify) throws SQLException {
+        if (overflowed.get()) {
+            // Отброшенные события покрываются полным сбросом на остальных экземплярах
+            drainOutgoing();
+            pendingPayloads.clear();
+            pendingPayloads.add(nodeId + '\n' + RESYNC_LINE);
+            overflowed.set(false);
+        } else if (!outgoing.isEmpty()) {
+            Collection<InvalidationEvent> batch = drainOutgoing();
+            StringBuilder payload = new StringBuilder(nodeId);
+            int payloadBytes = nodeId.length();
+            for (InvalidationEvent e : batch) {
+                String line = e.topic().name() + ':' + e.publishedAt() + ':' + e.key();
+                int lineBytes = line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (nodeId.length() + lineBytes > MAX_PAYLOAD_BYTES) {
+                    log.warn("Событие инвалидации {} не помещается в уведомление и не будет отправлено", e);
+                    continue;
+                }
+                if (payloadBytes + lineBytes > MAX_PAYLOAD_BYTES) {
+                    pendingPayloads.add(payload.toString());
+                    payload.setLength(nodeId.length());
+                    payloadBytes = nodeId.length();
+                }
+                payload.append('\n').append(line);
+                payloadBytes += lineBytes;
+            }
+            if (payloadBytes > nodeId.length()) {
+                pendingPayloads.add(payload.toString());
+            }
+        }
+        // Payload удаляется из очереди только после успешной отправки и будет повторен после переподключения
+        String payload;
+        while ((payload = pendingPayloads.peek()) != null) {
+            notify.setString(1, properties.getChannel());
+            notify.setString(2, payload);
+            notify.execute();
+            pendingPayloads.poll();
+        }
+    }
+
+    private Collection<InvalidationEvent> drainOutgoing() {
+        Map<String, InvalidationEvent> batch = new LinkedHashMap<>();
+        InvalidationEvent event;
+        while ((event = outgoing.poll()) != null) {
+            outgoingSize.decrementAndGet();
+            collapse(batch, event);
+        }
+        return batch.values();
+    }
+
+    /**
+     * Добавление события в пакет: из повторов по виду и ключу остается самое позднее.
+     */
+    private static void collapse(Map<String, InvalidationEvent> batch, InvalidationEvent event) {
+        batch.merge(event.topic().name() + ':' + event.key(), event,
+                (previous, next) -> next.publishedAt() >= previous.publishedAt() ? next : previous);
+    }
+
+    private void receive(PGNotification[] notifications) {
+        if (notifications == null || notifications.length == 0) {
+            return;
+        }
+        Map<String, InvalidationEvent> batch = new LinkedHashMap<>();
+        boolean resync = false;
+        for (PGNotification notification : notifications) {
+            String[] lines = notification.getParameter().split("\n");
+            if (!properties.getChannel().equals(notification.getName()) || lines[0].equals(nodeId)) {
+                continue;
+            }
+            for (int i = 1; i < lines.length; i++) {
+                if (RESYNC_LINE.equals(lines[i])) {
+                    resync = true;
+                    continue;
+                }
+                int topicEnd = lines[i].indexOf(':');
+                int timeEnd = lines[i].indexOf(':', topicEnd + 1);
+                try {
+                    collapse(batch, new InvalidationEvent(
+                            InvalidationEvent.Topic.valueOf(lines[i].substring(0, topicEnd)),
+                            lines[i].substring(timeEnd + 1),
+                            Long.parseLong(lines[i].substring(topicEnd + 1, timeEnd))));
+                } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                    log.warn("Некорректное событие инвалидации: {}", lines[i]);
+                }
+            }
+        }
+        if (resync) {
+            // Полный сброс покрывает все события пакета
+            resync();
+        } else {
+            batch.values().forEach(this::dispatch);
+        }
+    }
+
+    private void dispatch(InvalidationEvent event) {
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidation(event);
+            } catch (RuntimeException e) {
+                log.error("Ошибка обработки события инвалидации {}", event, e);
+            }
+        }
+    }
+
+    private void resync() {
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onResync();
+            } catch (RuntimeException e) {
+                log.error("Ошибка сброса состояния после переподключения шины инвалидации", e);
+            }
+        }
+    }
+
+    private boolean awaitStop(long millis) {
+        try {
+            return stopSignal.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,37 @@
+package school.faang.springsecuritydemo.invalidation;
+
+/**
+ * Событие инвалидации: локальное состояние, связанное с ключом, устарело.
+ *
+ * @param topic       вид состояния.
+ * @param key         ключ внутри вида состояния, не может содержать перевод строки.
+ * @param publishedAt время публикации по часам публикующего экземпляра в миллисекундах эпохи.
+ *                    Передается вместе с событием, чтобы получатели не зависели от своих часов.
+ */
+public record InvalidationEvent(Topic topic, String key, long publishedAt) {
+
+    public InvalidationEvent {
+        if (key.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Ключ события инвалидации не может содержать перевод строки");
+        }
+    }
+
+    /**
+     * Событие с текущим временем публикации.
+     */
+    public InvalidationEvent(Topic topic, String key) {
+        this(topic, key, System.currentTimeMillis());
+    }
+
+    /**
+     * Вид состояния, к которому относится событие.
+     */
+    public enum Topic {
+        // Данные пользователя, ключ — идентификатор пользователя
+        USER,
+        // Роль, ключ — имя роли
+        ROLE,
+        // Токены пользователя, ключ — идентификатор пользователя
+        TOKEN
+    }
+}
@@ -0,0 +1,29 @@
+package school.faang.springsecuritydemo.invalidation;
+
+/**
+ * Получатель событий шины инвалидации.
+ * <p>
+ * События этого экземпляра доставляются синхронно в потоке, вызвавшем
+ * {@link InvalidationBus#publish(InvalidationEvent)} (например, в потоке HTTP-запроса), поэтому
+ * локальное состояние устаревает до возврата из публикации. События других экземпляров
+ * и {@link #onResync()} вызываются в потоке шины. Методы могут вызываться из нескольких
+ * потоков одновременно и не должны блокироваться.
+ */
+public interface InvalidationListener {
+
+    /**
+     * Обработка события, опубликованного этим или другим экземпляром сервиса.
+     *
+     * @param event событие инвалидации.
+     */
+    void onInvalidation(InvalidationEvent event);
+
+    /**
+     * Сброс всего локального состояния.
+     * <p>
+     * Вызывается после восстановления соединения с базой (пока соединения не было,
+     * события других экземпляров могли быть пропущены) и по команде полного сброса
+     * от экземпляра, у которого переполнилась очередь отправки.
+     */
+    void onResync();
+}
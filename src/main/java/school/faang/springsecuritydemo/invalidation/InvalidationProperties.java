@@ -0,0 +1,52 @@
+package school.faang.springsecuritydemo.invalidation;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки шины инвалидации кэшей между экземплярами сервиса.
+ * <p>
+ * Шина использует `LISTEN/NOTIFY` Postgres на отдельном соединении к базе из `spring.datasource`.
+ * <p>
+ * Все значения берутся из конфигурационного файла с префиксом `invalidation`.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "invalidation")
+public class InvalidationProperties {
+
+    /**
+     * Включение обмена событиями через Postgres. Без него события доставляются только локально
+     */
+    private boolean enabled = true;
+
+    /**
+     * Канал `LISTEN/NOTIFY`
+     */
+    private String channel = "cache_invalidation";
+
+    /**
+     * Интервал ожидания уведомлений, за который накопленные события отправляются одним пакетом
+     */
+    private Duration pollInterval = Duration.ofMillis(10);
+
+    /**
+     * Начальная пауза перед повторным подключением, удваивается при каждой неудаче
+     */
+    private Duration reconnectBackoff = Duration.ofMillis(100);
+
+    /**
+     * Максимальная пауза перед повторным подключением
+     */
+    private Duration maxReconnectBackoff = Duration.ofSeconds(5);
+
+    /**
+     * Максимальное число событий, ожидающих отправки. При переполнении очередь сбрасывается,
+     * а остальные экземпляры получают команду полного сброса кэшей
+     */
+    private int maxPendingEvents = 10_000;
+}
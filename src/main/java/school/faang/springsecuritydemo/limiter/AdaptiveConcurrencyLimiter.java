@@ -0,0 +1,156 @@
+package school.faang.springsecuritydemo.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Адаптивный лимит одновременных запросов по схеме AIMD с оценкой по градиенту задержки.
+ * <p>
+ * Запрос допускается, если число выполняющихся запросов меньше текущего лимита. Задержки завершенных
+ * запросов усредняются по коротким окнам `sampleWindow`. Среднее окна сравнивается с долгосрочным
+ * средним, которое сглаживается по окнам с постоянной времени `baselineWindow`. Если среднее окна
+ * больше долгосрочного в `latencyTolerance` раз, а лимит в окне был занят почти полностью, то
+ * система перегружена и лимит умножается на `backoffRatio`. Иначе, если лимит использовался
+ * хотя бы наполовину, он увеличивается на единицу.
+ * <p>
+ * Оба средних считаются по одной и той же смеси маршрутов, поэтому медленный маршрут в группе
+ * не выглядит перегрузкой на фоне быстрых, как при сравнении с минимальной задержкой. Медленные
+ * запросы при свободном лимите тоже не уменьшают его: их задержка не связана с очередью.
+ * <p>
+ * Обновление лимита выполняется под блокировкой, но без ожидания: если блокировка занята,
+ * замер пропускается, поэтому под нагрузкой учет не становится узким местом.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Доля лимита, начиная с которой лимит считается занятым и задержка может уменьшить его
+    private static final double NEAR_LIMIT_RATIO = 0.9;
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double latencyTolerance;
+
+    private final double backoffRatio;
+
+    private final long sampleWindowNanos;
+
+    // Вес среднего очередного окна в долгосрочном среднем
+    private final double baselineSmoothing;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final ReentrantLock sampleLock = new ReentrantLock();
+
+    // Текущий лимит, дробный для плавного уменьшения
+    private volatile double limit;
+
+    // Долгосрочное среднее задержки, 0 пока нет ни одного окна
+    private double baselineNanos;
+
+    // Накопители текущего окна
+    private long windowSumNanos;
+    private int windowCount;
+    private int windowMaxInFlight;
+    private long windowStartNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, LimiterProperties.Budget budget, LimiterProperties properties) {
+        this(name, budget, properties, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, LimiterProperties.Budget budget, LimiterProperties properties,
+                               LongSupplier nanoClock) {
+        this.name = name;
+        this.minLimit = budget.getMinLimit();
+        this.maxLimit = budget.getMaxLimit();
+        this.limit = budget.getInitialLimit();
+        this.latencyTolerance = properties.getLatencyTolerance();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.sampleWindowNanos = properties.getSampleWindow().toNanos();
+        this.baselineSmoothing = Math.min(1.0,
+                (double) sampleWindowNanos / Math.max(1, properties.getBaselineWindow().toNanos()));
+        this.nanoClock = nanoClock;
+        this.windowStartNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Попытка занять место под запрос.
+     *
+     * @return {@code true}, если запрос допущен; тогда по его завершении нужно вызвать {@link #release(long)}.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Освобождение места и учет задержки завершенного запроса.
+     *
+     * @param latencyNanos задержка запроса.
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (!sampleLock.tryLock()) {
+            return;
+        }
+        try {
+            onSample(latencyNanos, inFlightBefore);
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void onSample(long latencyNanos, int inFlightBefore) {
+        windowSumNanos += latencyNanos;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+        long now = nanoClock.getAsLong();
+        if (now - windowStartNanos < sampleWindowNanos) {
+            return;
+        }
+
+        double windowAvgNanos = (double) windowSumNanos / windowCount;
+        int maxInFlight = windowMaxInFlight;
+        windowSumNanos = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+        windowStartNanos = now;
+
+        if (baselineNanos == 0) {
+            baselineNanos = windowAvgNanos;
+            return;
+        }
+        double current = limit;
+        if (windowAvgNanos > baselineNanos * latencyTolerance && maxInFlight >= (int) current * NEAR_LIMIT_RATIO) {
+            limit = Math.max(minLimit, current * backoffRatio);
+        } else if (maxInFlight * 2 >= (int) current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+        // Долгосрочное среднее следует за нагрузкой, в том числе вверх: после смены доли
+        // дорогих запросов прежнее среднее перестает быть достижимым
+        baselineNanos += (windowAvgNanos - baselineNanos) * baselineSmoothing;
+    }
+}
@@ -0,0 +1,92 @@
+package school.faang.springsecuritydemo.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import school.faang.springsecuritydemo.exception.AppError;
+
+/**
+ * Фильтр сброса нагрузки, стоящий перед цепочкой Spring Security.
+ * <p>
+ * Каждый запрос занимает место в лимите своей группы (см. {@link AdaptiveConcurrencyLimiter}).
+ * Если места нет, запрос сразу получает 503 с заголовком Retry-After, не доходя до проверки токена,
+ * BCrypt и пула соединений. Пробы `/actuator/**` не ограничиваются, чтобы перегрузка не выглядела
+ * для оркестратора как падение приложения.
+ * <p>
+ * Фильтр не является {@code @Component}: он регистрируется в {@link LimiterConfiguration}
+ * с явным порядком, иначе Spring Boot зарегистрировал бы его повторно с порядком по умолчанию.
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PREFIX = "/authorization/";
+
+    private static final String ACTUATOR_PREFIX = "/actuator/";
+
+    /**
+     * Лимит для `/authorization/**`
+     */
+    private final AdaptiveConcurrencyLimiter authLimiter;
+
+    /**
+     * Лимит для остальных запросов
+     */
+    private final AdaptiveConcurrencyLimiter apiLimiter;
+
+    /**
+     * Значение заголовка Retry-After в секундах
+     */
+    private final String retryAfterSeconds;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Число отклоненных запросов
+     */
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        var path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith(ACTUATOR_PREFIX)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        var limiter = path.startsWith(AUTH_PREFIX) ? authLimiter : apiLimiter;
+        if (!limiter.tryAcquire()) {
+            reject(response, limiter);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Для асинхронных запросов (выгрузка пользователей) учитывается только синхронная часть,
+            // иначе длинная выгрузка выглядела бы как перегрузка
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    private void reject(HttpServletResponse response, AdaptiveConcurrencyLimiter limiter) throws IOException {
+        rejected.incrementAndGet();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new AppError(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Сервис перегружен (" + limiter.getName() + "), повторите запрос позже"));
+    }
+}
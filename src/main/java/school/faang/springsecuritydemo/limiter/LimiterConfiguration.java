@@ -0,0 +1,58 @@
+package school.faang.springsecuritydemo.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Регистрация фильтра {@link ConcurrencyLimitFilter} перед цепочкой Spring Security.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "limiter", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LimiterConfiguration {
+
+    /**
+     * Фильтр с порядком меньше, чем у цепочки Spring Security, то есть до {@code JwtRequestFilter}.
+     *
+     * @param properties    настройки ограничения.
+     * @param objectMapper  сериализация тела ответа 503.
+     * @param meterRegistry реестр метрик, если он есть в контексте.
+     * @return регистрация фильтра.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(LimiterProperties properties,
+                                                                                 ObjectMapper objectMapper,
+                                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        var authLimiter = new AdaptiveConcurrencyLimiter("auth", properties.getAuth(), properties);
+        var apiLimiter = new AdaptiveConcurrencyLimiter("api", properties.getApi(), properties);
+        var filter = new ConcurrencyLimitFilter(authLimiter, apiLimiter,
+                String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())), objectMapper);
+        meterRegistry.ifAvailable(registry -> {
+            bindMetrics(registry, authLimiter);
+            bindMetrics(registry, apiLimiter);
+            FunctionCounter.builder("limiter.rejected", filter, ConcurrencyLimitFilter::getRejected)
+                    .register(registry);
+        });
+
+        var registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    private void bindMetrics(MeterRegistry registry, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("budget", limiter.getName())
+                .register(registry);
+        Gauge.builder("limiter.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("budget", limiter.getName())
+                .register(registry);
+    }
+}
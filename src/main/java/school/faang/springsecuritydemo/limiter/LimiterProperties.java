@@ -0,0 +1,94 @@
+package school.faang.springsecuritydemo.limiter;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки адаптивного ограничения числа одновременно обрабатываемых запросов.
+ * <p>
+ * Дорогие запросы (`/authorization/**`: BCrypt, запись в базу данных) и все остальные
+ * ограничиваются раздельно, чтобы шторм логинов не вытеснял проверку токенов.
+ * <p>
+ * Все значения берутся из конфигурационного файла с префиксом `limiter`.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "limiter")
+public class LimiterProperties {
+
+    /**
+     * Включение ограничения
+     */
+    private boolean enabled = true;
+
+    /**
+     * Во сколько раз средняя задержка окна может превысить долгосрочную среднюю, прежде чем лимит будет уменьшен
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Множитель лимита при превышении задержки
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Окно усреднения задержки, по итогам которого лимит пересматривается
+     */
+    private Duration sampleWindow = Duration.ofMillis(100);
+
+    /**
+     * Постоянная времени сглаживания долгосрочной средней задержки
+     */
+    private Duration baselineWindow = Duration.ofSeconds(10);
+
+    /**
+     * Значение заголовка Retry-After в ответе 503
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Лимит для `/authorization/**`
+     */
+    private Budget auth = new Budget(16, 2, 64);
+
+    /**
+     * Лимит для остальных запросов
+     */
+    private Budget api = new Budget(100, 10, 400);
+
+    /**
+     * Границы лимита одной группы запросов.
+     */
+    @Getter
+    @Setter
+    public static class Budget {
+
+        /**
+         * Начальный лимит
+         */
+        private int initialLimit;
+
+        /**
+         * Минимальный лимит
+         */
+        private int minLimit;
+
+        /**
+         * Максимальный лимит
+         */
+        private int maxLimit;
+
+        public Budget() {
+        }
+
+        public Budget(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package school.faang.springsecuritydemo.profiling;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Запуск постоянной записи JFR с профилем событий аутентификации.
+ * <p>
+ * Запись пишется на диск кольцом (`profiling.jfr.max-age`, `profiling.jfr.max-size`),
+ * снимок можно получить в любой момент через `jcmd <pid> JFR.dump name=auth-profiling`.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JfrRecordingStarter implements SmartLifecycle {
+
+    /**
+     * Имя записи для `jcmd JFR.dump`
+     */
+    public static final String RECORDING_NAME = "auth-profiling";
+
+    private final ProfilingProperties properties;
+
+    private Recording recording;
+
+    @Override
+    public synchronized void start() {
+        if (!properties.isEnabled() || recording != null) {
+            return;
+        }
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            if (properties.getSettings() != null) {
+                try (Reader reader = new InputStreamReader(properties.getSettings().getInputStream(),
+                        StandardCharsets.UTF_8)) {
+                    settings.putAll(Configuration.create(reader).getSettings());
+                }
+            }
+            recording = new Recording(settings);
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.setMaxAge(properties.getMaxAge());
+            recording.setMaxSize(properties.getMaxSize().toBytes());
+            if (properties.getDestination() != null) {
+                recording.setDestination(Path.of(properties.getDestination()));
+            }
+            recording.start();
+            log.info("Запись JFR {} запущена", RECORDING_NAME);
+        } catch (IOException | ParseException | RuntimeException e) {
+            // Профилирование не должно мешать запуску приложения
+            log.error("Не удалось запустить запись JFR", e);
+            recording = null;
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recording != null) {
+            // При заданном destination stop() сохраняет запись в файл
+            try {
+                recording.stop();
+            } catch (IllegalStateException e) {
+                log.warn("Запись JFR {} уже остановлена", RECORDING_NAME);
+            }
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recording != null;
+    }
+}
@@ -0,0 +1,24 @@
+package school.faang.springsecuritydemo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Сравнение пароля с хешем BCrypt при логине.
+ */
+@Name("school.faang.springsecuritydemo.PasswordMatch")
+@Label("Password Match")
+@Category({"Spring Security Demo", "Authentication"})
+@Description("Сравнение пароля с хешем BCrypt")
+@Enabled(false)
+@StackTrace(false)
+public class PasswordMatchEvent extends Event {
+
+    @Label("Matched")
+    public boolean matched;
+}
@@ -0,0 +1,47 @@
+package school.faang.springsecuritydemo.profiling;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Настройки постоянной записи JFR, запускаемой приложением.
+ * <p>
+ * Все значения берутся из конфигурационного файла с префиксом `profiling.jfr`.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "profiling.jfr")
+public class ProfilingProperties {
+
+    /**
+     * Запуск записи при старте приложения. Без нее события можно включить флагом
+     * `-XX:StartFlightRecording` или `jcmd JFR.start` с тем же профилем
+     */
+    private boolean enabled = false;
+
+    /**
+     * Профиль событий, применяется поверх стандартного профиля JDK `default`
+     */
+    private Resource settings;
+
+    /**
+     * Сколько хранить данные записи на диске
+     */
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    /**
+     * Максимальный объем данных записи на диске
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Файл, в который запись сохраняется при остановке приложения, если задан
+     */
+    private String destination;
+}
@@ -0,0 +1,42 @@
+package school.faang.springsecuritydemo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Операция с таблицей `refresh_tokens`.
+ * <p>
+ * Длительность не включает фиксацию транзакции, которая выполняется после выхода из метода сервиса.
+ */
+@Name("school.faang.springsecuritydemo.RefreshTokenDb")
+@Label("Refresh Token DB")
+@Category({"Spring Security Demo", "Database"})
+@Description("Запрос к таблице refresh_tokens")
+@Enabled(false)
+@StackTrace(false)
+public class RefreshTokenDbEvent extends Event {
+
+    public static final String INSERT = "INSERT";
+
+    public static final String CONSUME = "CONSUME";
+
+    public static final String EXISTS = "EXISTS";
+
+    public static final String DELETE = "DELETE";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Rows")
+    @Description("Количество найденных или измененных строк")
+    public int rows;
+
+    @Label("Failed")
+    @Description("Запрос завершился исключением")
+    public boolean failed;
+}
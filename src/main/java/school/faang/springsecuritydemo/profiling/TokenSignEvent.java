@@ -0,0 +1,30 @@
+package school.faang.springsecuritydemo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Выпуск и подпись токена.
+ */
+@Name("school.faang.springsecuritydemo.TokenSign")
+@Label("Token Sign")
+@Category({"Spring Security Demo", "Tokens"})
+@Description("Выпуск и подпись HS256 токена")
+@Enabled(false)
+@StackTrace(false)
+public class TokenSignEvent extends Event {
+
+    public static final String ACCESS = "ACCESS";
+
+    public static final String ACCESS_RENEWAL = "ACCESS_RENEWAL";
+
+    public static final String REFRESH = "REFRESH";
+
+    @Label("Token Type")
+    public String tokenType;
+}
@@ -0,0 +1,28 @@
+package school.faang.springsecuritydemo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Проверка access токена в фильтре запросов.
+ */
+@Name("school.faang.springsecuritydemo.TokenVerify")
+@Label("Token Verify")
+@Category({"Spring Security Demo", "Tokens"})
+@Description("Проверка подписи и claims access токена")
+@Enabled(false)
+@StackTrace(false)
+public class TokenVerifyEvent extends Event {
+
+    @Label("Status")
+    public String status;
+
+    @Label("Fallback")
+    @Description("Токен проверен jjwt, а не быстрым верификатором")
+    public boolean fallback;
+}
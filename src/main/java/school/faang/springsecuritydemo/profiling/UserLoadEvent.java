@@ -0,0 +1,31 @@
+package school.faang.springsecuritydemo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Загрузка пользователя с ролями (из локального кэша или базы данных).
+ */
+@Name("school.faang.springsecuritydemo.UserLoad")
+@Label("User Load")
+@Category({"Spring Security Demo", "Authentication"})
+@Description("Загрузка пользователя с ролями из кэша или базы данных")
+@Enabled(false)
+@StackTrace(false)
+public class UserLoadEvent extends Event {
+
+    public static final String BY_USERNAME = "USERNAME";
+
+    public static final String BY_ID = "ID";
+
+    @Label("Lookup")
+    public String lookup;
+
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,9 @@
+/**
+ * События JDK Flight Recorder для коротких операций аутентификации: проверка и подпись токенов,
+ * сравнение пароля BCrypt, загрузка пользователя и операции с refresh-токенами в базе данных.
+ * <p>
+ * Все события по умолчанию выключены ({@code @Enabled(false)}) и включаются профилем
+ * `jfr/auth-profiling.jfc`. Выключенное событие стоит одной проверки флага, а объект события
+ * убирается JIT-компилятором, поэтому инструментирование можно оставлять в рабочей сборке.
+ */
+package school.faang.springsecuritydemo.profiling;
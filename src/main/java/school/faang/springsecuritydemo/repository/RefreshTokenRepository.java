@@ -1,12 +1,68 @@
 package school.faang.springsecuritydemo.repository;
 
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import school.faang.springsecuritydemo.domain.RefreshToken;
 
 public interface RefreshTokenRepository extends CrudRepository<RefreshToken, Long> {
 
-    boolean existsRefreshTokenByToken(String token);
+    boolean existsByTokenHashAndExpiresAtAfter(byte[] tokenHash, Instant now);
 
-    void deleteByToken(String token);
+    /**
+     * Сохранение дайджеста refresh-токена.
+     * <p>
+     * Одинаковые JWT, выпущенные одному пользователю в одну секунду, дают один дайджест,
+     * поэтому повторная вставка не считается ошибкой.
+     *
+     * @return количество вставленных записей.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO refresh_tokens (user_id, token_hash, expires_at)
+            VALUES (:userId, :tokenHash, :expiresAt)
+            ON CONFLICT (token_hash) DO NOTHING
+            """, nativeQuery = true)
+    int insert(@Param("userId") Long userId,
+               @Param("tokenHash") byte[] tokenHash,
+               @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Использование refresh-токена: удаление действующей записи одним выражением по уникальному индексу.
+     *
+     * @return идентификатор владельца токена или пустое значение, если токен не найден или истек.
+     */
+    @Transactional
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE token_hash = :tokenHash AND expires_at > now()
+            RETURNING user_id
+            """, nativeQuery = true)
+    Optional<Long> consume(@Param("tokenHash") byte[] tokenHash);
+
+    /**
+     * Удаление порции истекших refresh-токенов.
+     *
+     * @return количество удаленных записей.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (
+                SELECT id FROM refresh_tokens
+                WHERE expires_at < now()
+                LIMIT :limit
+            )
+            """, nativeQuery = true)
+    int deleteExpired(@Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") byte[] tokenHash);
 
 }
@@ -1,11 +1,66 @@
 package school.faang.springsecuritydemo.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import school.faang.springsecuritydemo.domain.Role;
 
 @Repository
 public interface RoleRepository extends CrudRepository<Role, Integer> {
     Optional<Role> findByName(String name);
+
+    /**
+     * Все связи иерархии ролей по именам.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+            SELECT parent.name AS parent, child.name AS child
+            FROM roles_hierarchy h
+            JOIN roles parent ON parent.id = h.parent_role_id
+            JOIN roles child ON child.id = h.child_role_id
+            """, nativeQuery = true)
+    List<RoleEdge> findHierarchy();
+
+    /**
+     * Выдача роли пользователям одним выражением. Несуществующие идентификаторы пропускаются,
+     * уже выданные роли не считаются ошибкой.
+     *
+     * @return идентификаторы пользователей, которым роль была выдана.
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO users_roles (user_id, role_id)
+            SELECT id, :roleId FROM users
+            WHERE id IN (:userIds)
+            ON CONFLICT DO NOTHING
+            RETURNING user_id
+            """, nativeQuery = true)
+    List<Long> grant(@Param("roleId") Integer roleId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Отзыв роли у пользователей одним выражением.
+     *
+     * @return идентификаторы пользователей, у которых роль была отозвана.
+     */
+    @Transactional
+    @Query(value = """
+            DELETE FROM users_roles
+            WHERE role_id = :roleId AND user_id IN (:userIds)
+            RETURNING user_id
+            """, nativeQuery = true)
+    List<Long> revoke(@Param("roleId") Integer roleId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Связь иерархии: роль `parent` включает права роли `child`.
+     */
+    interface RoleEdge {
+        String getParent();
+
+        String getChild();
+    }
 }
@@ -1,11 +1,198 @@
 package school.faang.springsecuritydemo.repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import school.faang.springsecuritydemo.domain.User;
 
 @Repository
 public interface UserRepository extends CrudRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    /**
+     * Поиск пользователя вместе с ролями одним запросом, без ленивой загрузки вне транзакции.
+     */
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByUsername(String username);
+
+    /**
+     * Поиск пользователя вместе с ролями одним запросом, без ленивой загрузки вне транзакции.
+     */
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesById(Long id);
+
+    /**
+     * Вставка пользователя и привязка роли одним выражением.
+     * <p>
+     * Дубликаты отсекаются уникальными ограничениями таблицы `users` через `ON CONFLICT DO NOTHING`,
+     * поэтому одновременные регистрации с одинаковым именем не приводят к ошибке ограничения.
+     *
+     * @return идентификатор созданного пользователя или пустое значение, если имя или email уже заняты.
+     */
+    @Transactional
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO users (username, password, email)
+                VALUES (:username, :password, :email)
+                ON CONFLICT DO NOTHING
+                RETURNING id
+            ), linked AS (
+                INSERT INTO users_roles (user_id, role_id)
+                SELECT inserted.id, roles.id
+                FROM inserted, roles
+                WHERE roles.name = :roleName
+            )
+            SELECT id FROM inserted
+            """, nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("username") String username,
+                                  @Param("password") String password,
+                                  @Param("email") String email,
+                                  @Param("roleName") String roleName);
+
+    /**
+     * Страница пользователей по возрастанию идентификатора (keyset по первичному ключу).
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+            SELECT id, username, email FROM users
+            WHERE id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserSummary> findPage(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Страница пользователей с именем по шаблону LIKE, по возрастанию имени в сортировке "C".
+     * <p>
+     * Условия и порядок совпадают с индексом `users_username_c_idx`.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+            SELECT id, username, email FROM users
+            WHERE username COLLATE "C" LIKE :pattern
+              AND username COLLATE "C" > :afterUsername
+            ORDER BY username COLLATE "C"
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserSummary> findPageByUsernameLike(@Param("pattern") String pattern,
+                                             @Param("afterUsername") String afterUsername,
+                                             @Param("limit") int limit);
+
+    /**
+     * Страница пользователей с email по шаблону ILIKE (индекс `users_email_trgm_idx`),
+     * по возрастанию идентификатора.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+            SELECT id, username, email FROM users
+            WHERE email ILIKE :pattern
+              AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserSummary> findPageByEmailLike(@Param("pattern") String pattern,
+                                          @Param("afterId") long afterId,
+                                          @Param("limit") int limit);
+
+    /**
+     * Идентификаторы пользователей с именем по шаблону LIKE, по возрастанию идентификатора.
+     */
+    @Query(value = """
+            SELECT id FROM users
+            WHERE username COLLATE "C" LIKE :pattern
+              AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findIdsByUsernameLike(@Param("pattern") String pattern,
+                                     @Param("afterId") long afterId,
+                                     @Param("limit") int limit);
+
+    /**
+     * Идентификаторы пользователей с email по шаблону ILIKE, по возрастанию идентификатора.
+     */
+    @Query(value = """
+            SELECT id FROM users
+            WHERE email ILIKE :pattern
+              AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findIdsByEmailLike(@Param("pattern") String pattern,
+                                  @Param("afterId") long afterId,
+                                  @Param("limit") int limit);
+
+    /**
+     * Все пользователи по возрастанию идентификатора курсором драйвера.
+     * <p>
+     * Строки читаются порциями по размеру выборки и не попадают в контекст персистентности,
+     * поэтому память не зависит от числа пользователей. Поток нужно закрыть внутри транзакции.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT id, username, email FROM users ORDER BY id", nativeQuery = true)
+    Stream<UserSummary> streamAll();
+
+    /**
+     * Краткие данные пользователя без паролей и ролей.
+     */
+    interface UserSummary {
+        Long getId();
+
+        String getUsername();
+
+        String getEmail();
+    }
+
+    /**
+     * Отметка изменения ролей пользователей, выполняется в транзакции самого изменения.
+     *
+     * @param userIds   идентификаторы пользователей.
+     * @param changedAt время изменения.
+     * @return количество обновленных записей.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE users SET roles_changed_at = :changedAt
+            WHERE id IN (:userIds)
+            """, nativeQuery = true)
+    int markRolesChanged(@Param("userIds") Collection<Long> userIds, @Param("changedAt") Instant changedAt);
+
+    /**
+     * Пользователи, роли которых изменились после указанного времени.
+     * <p>
+     * Запрос не read-only и выполняется на основной базе: реплика могла еще не получить
+     * последние изменения.
+     */
+    @Transactional
+    @Query(value = """
+            SELECT id AS userId, CAST(EXTRACT(EPOCH FROM roles_changed_at) AS bigint) AS changedAtSeconds
+            FROM users
+            WHERE roles_changed_at > :since
+            """, nativeQuery = true)
+    List<RolesChange> findRolesChangedSince(@Param("since") Instant since);
+
+    /**
+     * Время последнего изменения ролей пользователя.
+     */
+    interface RolesChange {
+        Long getUserId();
+
+        // Время изменения в секундах эпохи
+        Long getChangedAtSeconds();
+    }
 }
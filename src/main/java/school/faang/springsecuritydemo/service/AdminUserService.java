@@ -0,0 +1,146 @@
+package school.faang.springsecuritydemo.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import school.faang.springsecuritydemo.dto.response.UserPageResponse;
+import school.faang.springsecuritydemo.dto.response.UserResponse;
+import school.faang.springsecuritydemo.repository.UserRepository;
+import school.faang.springsecuritydemo.repository.UserRepository.UserSummary;
+
+/**
+ * Просмотр и поиск пользователей администраторами.
+ * <p>
+ * Страницы выбираются по ключу (keyset): следующая страница начинается после ключа последней
+ * строки предыдущей, поэтому стоимость запроса не растет с номером страницы. Курсор — это
+ * идентификатор для списка и поиска по email или имя пользователя для поиска по префиксу имени.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminUserService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Минимальная длина строки поиска по email, с которой работает триграммный индекс
+    public static final int MIN_EMAIL_QUERY_LENGTH = 3;
+
+    private final UserRepository userRepository;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Страница всех пользователей по возрастанию идентификатора.
+     *
+     * @param cursor курсор из предыдущей страницы или {@code null} для первой страницы.
+     * @param limit  размер страницы.
+     * @return страница пользователей.
+     */
+    public UserPageResponse findPage(String cursor, int limit) {
+        var users = userRepository.findPage(parseIdCursor(cursor), limit);
+        return toPage(users, limit, last -> last.getId().toString());
+    }
+
+    /**
+     * Страница пользователей, имя которых начинается с префикса, по возрастанию имени.
+     *
+     * @param prefix префикс имени.
+     * @param cursor курсор из предыдущей страницы или {@code null} для первой страницы.
+     * @param limit  размер страницы.
+     * @return страница пользователей.
+     */
+    public UserPageResponse findPageByUsernamePrefix(String prefix, String cursor, int limit) {
+        var users = userRepository.findPageByUsernameLike(escapeLike(prefix) + "%",
+                cursor == null ? "" : cursor, limit);
+        return toPage(users, limit, UserSummary::getUsername);
+    }
+
+    /**
+     * Страница пользователей, email которых содержит строку (без учета регистра), по возрастанию идентификатора.
+     *
+     * @param email  часть email, не короче {@link #MIN_EMAIL_QUERY_LENGTH} символов.
+     * @param cursor курсор из предыдущей страницы или {@code null} для первой страницы.
+     * @param limit  размер страницы.
+     * @return страница пользователей.
+     */
+    public UserPageResponse findPageByEmail(String email, String cursor, int limit) {
+        var users = userRepository.findPageByEmailLike("%" + escapeLike(email) + "%",
+                parseIdCursor(cursor), limit);
+        return toPage(users, limit, last -> last.getId().toString());
+    }
+
+    /**
+     * Выгрузка всех пользователей в формате NDJSON (один JSON-объект на строку).
+     * <p>
+     * Строки читаются курсором внутри read-only транзакции и сразу пишутся в поток ответа,
+     * поэтому память не зависит от числа пользователей.
+     *
+     * @param out поток ответа.
+     * @throws IOException при ошибке записи.
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<UserSummary> users = userRepository.streamAll()) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            users.forEach(user -> {
+                try {
+                    generator.writeObject(toResponse(user));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeRaw('\n');
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Проверка курсора для списков по идентификатору.
+     *
+     * @param cursor курсор из запроса.
+     * @return {@code true}, если курсор пустой или является идентификатором.
+     */
+    public boolean isValidIdCursor(String cursor) {
+        if (cursor == null) {
+            return true;
+        }
+        try {
+            Long.parseLong(cursor);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static long parseIdCursor(String cursor) {
+        return cursor == null ? 0 : Long.parseLong(cursor);
+    }
+
+    private static UserPageResponse toPage(List<UserSummary> users, int limit,
+                                           Function<UserSummary, String> cursorOf) {
+        var page = users.stream().map(AdminUserService::toResponse).toList();
+        var nextCursor = users.size() == limit ? cursorOf.apply(users.get(users.size() - 1)) : null;
+        return new UserPageResponse(page, nextCursor);
+    }
+
+    private static UserResponse toResponse(UserSummary user) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail());
+    }
+
+    /**
+     * Экранирование спецсимволов LIKE, чтобы строка поиска сравнивалась буквально.
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,18 +1,22 @@
 package school.faang.springsecuritydemo.service;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.security.auth.message.AuthException;
+import java.time.Instant;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestBody;
+import school.faang.springsecuritydemo.audit.LoginAuditEvent;
+import school.faang.springsecuritydemo.audit.LoginAuditService;
 import school.faang.springsecuritydemo.auth.CustomUserDetails;
 import school.faang.springsecuritydemo.auth.SecurityConstants;
-import school.faang.springsecuritydemo.domain.RefreshToken;
-import school.faang.springsecuritydemo.domain.User;
 import school.faang.springsecuritydemo.dto.request.LoginRequest;
 import school.faang.springsecuritydemo.dto.request.RegistrationUserRequest;
 import school.faang.springsecuritydemo.dto.request.UpdateTokenRequest;
@@ -20,6 +24,8 @@ import school.faang.springsecuritydemo.dto.response.JwtResponse;
 import school.faang.springsecuritydemo.dto.response.UserResponse;
 import school.faang.springsecuritydemo.exception.AppError;
 import school.faang.springsecuritydemo.util.JwtTokenUtils;
+import school.faang.springsecuritydemo.util.SingleFlight;
+import school.faang.springsecuritydemo.util.TokenHashUtils;
 
 /**
  * Сервис для аутентификации и управления токенами.
@@ -47,20 +53,63 @@ public class AuthService {
     // Константы безопасности, включая секреты для токенов
     private final SecurityConstants securityConstants;
 
+    // Объединение повторных запросов выдачи токенов
+    private final SingleFlight<String, JwtResponse> authSingleFlight;
+
+    // Асинхронный журнал логинов и обновлений токенов
+    private final LoginAuditService loginAuditService;
+
+    // Учет времени последнего логина и запроса пользователя
+    private final UserActivityTracker userActivityTracker;
+
+    /**
+     * Создание новых JWT токенов (access и refresh) с учетом ключа идемпотентности.
+     * <p>
+     * Если клиент передал Idempotency-Key, одновременные повторы логина с тем же ключом и теми же
+     * учетными данными не выполняют аутентификацию заново, а получают результат первого запроса.
+     *
+     * @param authRequest    запрос с данными для аутентификации (имя пользователя и пароль).
+     * @param idempotencyKey ключ идемпотентности запроса или {@code null}.
+     * @param clientIp       адрес клиента для журнала логинов.
+     * @return объект JwtResponse с новым access и refresh токенами.
+     * @throws BadCredentialsException если не указаны имя пользователя или пароль.
+     */
+    public JwtResponse createAuthToken(LoginRequest authRequest, String idempotencyKey, String clientIp) {
+        // Без имени или пароля аутентификация невозможна, ключ объединения из них не строится
+        if (authRequest.getUsername() == null || authRequest.getPassword() == null) {
+            throw new BadCredentialsException("Не указаны имя пользователя или пароль");
+        }
+        if (idempotencyKey == null) {
+            return createAuthToken(authRequest, clientIp);
+        }
+        // Пароль входит в ключ, чтобы повтор с чужим Idempotency-Key не получил чужие токены
+        var key = "login:" + TokenHashUtils.sha256Base64(idempotencyKey,
+                authRequest.getUsername(), authRequest.getPassword());
+        return authSingleFlight.execute(key, () -> createAuthToken(authRequest, clientIp));
+    }
+
     /**
      * Создание новых JWT токенов (access и refresh) после успешной аутентификации пользователя.
      * <p>
-     * Этот метод аутентифицирует пользователя, генерирует для него новый access токен и refresh токен,
-     * а затем сохраняет новый refresh токен в базе данных.
+     * Этот метод аутентифицирует пользователя, генерирует для него новый access токен
+     * и выпускает refresh токен, дайджест которого сохраняется в базе данных.
+     * Результат попытки записывается в журнал логинов без ожидания базы данных.
      *
      * @param authRequest запрос с данными для аутентификации (имя пользователя и пароль).
+     * @param clientIp    адрес клиента для журнала логинов.
      * @return объект JwtResponse с новым access и refresh токенами.
      */
-    public JwtResponse createAuthToken(@RequestBody LoginRequest authRequest) {
+    private JwtResponse createAuthToken(LoginRequest authRequest, String clientIp) {
         // Аутентификация пользователя
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(authRequest.getUsername(),
-                        authRequest.getPassword()));
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(authRequest.getUsername(),
+                            authRequest.getPassword()));
+        } catch (AuthenticationException e) {
+            audit(LoginAuditEvent.Type.LOGIN, LoginAuditEvent.Result.FAILURE, null,
+                    authRequest.getUsername(), clientIp);
+            throw e;
+        }
 
         // Загрузка данных пользователя
         CustomUserDetails userDetails =
@@ -68,10 +117,13 @@ public class AuthService {
 
         // Генерация токенов
         var accessToken = jwtTokenUtils.generateAccessToken(userDetails);
-        var refreshToken = jwtTokenUtils.generateRefreshToken(userDetails);
 
-        // Сохранение refresh токена в базе данных
-        refreshTokenService.save(new RefreshToken(refreshToken, userDetails.getId()));
+        // Выпуск refresh токена с сохранением его дайджеста в базе данных
+        var refreshToken = refreshTokenService.create(userDetails);
+
+        userActivityTracker.recordLogin(userDetails.getId());
+        audit(LoginAuditEvent.Type.LOGIN, LoginAuditEvent.Result.SUCCESS, userDetails.getId(),
+                userDetails.getUsername(), clientIp);
 
         // Возврат токенов
         return new JwtResponse(accessToken, refreshToken);
@@ -80,8 +132,9 @@ public class AuthService {
     /**
      * Регистрация нового пользователя.
      * <p>
-     * Этот метод проверяет, совпадают ли пароли, а также не существует ли уже пользователь с таким именем.
-     * Если все проверки проходят, то создается новый пользователь и возвращается информация о нем.
+     * Этот метод проверяет, совпадают ли пароли, после чего создает пользователя одним запросом.
+     * Уникальность имени гарантирует ограничение в базе данных, поэтому отдельная проверка
+     * не выполняется, а конфликт (в том числе при одновременных регистрациях) возвращается как 409.
      *
      * @param registrationUserRequest запрос с данными для регистрации пользователя.
      * @return ответ с информацией о зарегистрированном пользователе или ошибкой.
@@ -96,56 +149,92 @@ public class AuthService {
                     HttpStatus.BAD_REQUEST);
         }
 
-        // Проверка на существование пользователя с таким именем
-        if (userService.findByUsername(registrationUserRequest.getUsername()).isPresent()) {
-            return new ResponseEntity<>(new AppError(HttpStatus.BAD_REQUEST.value(),
-                    "Пользователь с указанным именем уже существует"), HttpStatus.BAD_REQUEST);
+        // Создание нового пользователя, пустой результат означает конфликт по имени или email
+        Optional<Long> userId = userService.createNewUser(registrationUserRequest);
+        if (userId.isEmpty()) {
+            return new ResponseEntity<>(new AppError(HttpStatus.CONFLICT.value(),
+                    "Пользователь с указанным именем или email уже существует"), HttpStatus.CONFLICT);
         }
 
-        // Создание нового пользователя
-        User user = userService.createNewUser(registrationUserRequest);
-
         // Возврат данных о новом пользователе
-        return ResponseEntity.ok(
-                new UserResponse(user.getId(), user.getUsername(), user.getEmail()));
+        return ResponseEntity.ok(new UserResponse(userId.get(),
+                registrationUserRequest.getUsername(), registrationUserRequest.getEmail()));
     }
 
     /**
      * Обновление токенов (access и refresh) с использованием refresh токена.
      * <p>
-     * Этот метод проверяет действительность refresh токена и, если он действителен,
-     * генерирует новые access и refresh токены. Затем старый refresh токен удаляется,
-     * и новый сохраняется в базе данных.
+     * Одновременные повторы с тем же refresh токеном (например, ретраи мобильного клиента)
+     * объединяются по его хешу: обновление выполняется один раз, и все повторы получают одну пару токенов.
      *
      * @param updateTokenRequest запрос с данным refresh токеном.
+     * @param clientIp           адрес клиента для журнала логинов.
      * @return объект JwtResponse с новыми access и refresh токенами.
      * @throws AuthException если переданный refresh токен не действителен.
+     * @throws BadCredentialsException если refresh токен не указан.
      */
-    @Transactional
-    public JwtResponse attemptToRefreshTokens(UpdateTokenRequest updateTokenRequest)
+    public JwtResponse attemptToRefreshTokens(UpdateTokenRequest updateTokenRequest, String clientIp)
             throws AuthException {
         var oldRefreshToken = updateTokenRequest.getRefreshToken();
+        if (oldRefreshToken == null || oldRefreshToken.isEmpty()) {
+            throw new BadCredentialsException("Не указан refresh-токен");
+        }
+        var key = "refresh:" + TokenHashUtils.sha256Base64(oldRefreshToken);
+        return authSingleFlight.execute(key, () -> {
+            try {
+                return refreshTokens(oldRefreshToken, clientIp);
+            } catch (AuthException | JwtException e) {
+                audit(LoginAuditEvent.Type.REFRESH, LoginAuditEvent.Result.FAILURE, null, null, clientIp);
+                throw e;
+            }
+        });
+    }
 
-        // Проверка существования refresh токена
-        if (!refreshTokenService.existsByToken(oldRefreshToken)) {
-            throw new AuthException("Переданный refresh-токен не действителен");
+    /**
+     * Обновление токенов (access и refresh) с использованием refresh токена.
+     * <p>
+     * Старый refresh токен удаляется из базы данных одним выражением по дайджесту, а пользователь
+     * определяется по записи токена, поэтому opaque токен не требует ни подписи, ни разбора.
+     * Удаление старого токена, загрузка пользователя и выпуск нового выполняются в одной транзакции.
+     * Для токенов в формате JWT предварительно проверяется подпись и наличие токена на реплике.
+     * Если старый токен к моменту удаления уже использован или истек, обновление отклоняется.
+     *
+     * @param oldRefreshToken refresh токен из запроса.
+     * @param clientIp        адрес клиента для журнала логинов.
+     * @return объект JwtResponse с новыми access и refresh токенами.
+     * @throws AuthException если переданный refresh токен не действителен.
+     */
+    private JwtResponse refreshTokens(String oldRefreshToken, String clientIp) throws AuthException {
+        if (securityConstants.getRefreshTokenMode() == SecurityConstants.RefreshTokenMode.JWT) {
+            var claims = jwtTokenUtils.getAllClaimsFromToken(oldRefreshToken,
+                    securityConstants.getRefreshSecret());
+
+            // Проверка существования refresh токена
+            if (!refreshTokenService.isActive(oldRefreshToken, claims.getIssuedAt().toInstant())) {
+                throw new AuthException("Переданный refresh-токен не действителен");
+            }
         }
 
-        // Загрузка данных пользователя по старому refresh токену
-        CustomUserDetails userDetails =
-                userService.loadUserByUsername(
-                        jwtTokenUtils.getUsername(oldRefreshToken,
-                                securityConstants.getRefreshSecret()));
+        // Использование старого refresh токена, загрузка владельца и выпуск нового в одной транзакции
+        var rotation = refreshTokenService.rotate(oldRefreshToken).orElseThrow(
+                () -> new AuthException("Переданный refresh-токен не действителен"));
+        CustomUserDetails userDetails = rotation.userDetails();
+        Long userId = userDetails.getId();
 
-        // Генерация новых токенов
+        // Генерация нового access токена
         var accessToken = jwtTokenUtils.generateAccessToken(userDetails);
-        var refreshToken = jwtTokenUtils.generateRefreshToken(userDetails);
+        var refreshToken = rotation.refreshToken();
 
-        // Удаление старого refresh токена и сохранение нового
-        refreshTokenService.deleteByToken(oldRefreshToken);
-        refreshTokenService.save(new RefreshToken(refreshToken, userDetails.getId()));
+        userActivityTracker.recordSeen(userId);
+        audit(LoginAuditEvent.Type.REFRESH, LoginAuditEvent.Result.SUCCESS, userId,
+                userDetails.getUsername(), clientIp);
 
         // Возврат новых токенов
         return new JwtResponse(accessToken, refreshToken);
     }
+
+    private void audit(LoginAuditEvent.Type type, LoginAuditEvent.Result result, Long userId,
+                       String username, String clientIp) {
+        loginAuditService.record(new LoginAuditEvent(type, result, userId, username, clientIp, Instant.now()));
+    }
 }
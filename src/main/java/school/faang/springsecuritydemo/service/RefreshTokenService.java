@@ -1,30 +1,215 @@
 package school.faang.springsecuritydemo.service;
 
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import school.faang.springsecuritydemo.domain.RefreshToken;
+import school.faang.springsecuritydemo.auth.CustomUserDetails;
+import school.faang.springsecuritydemo.auth.SecurityConstants;
+import school.faang.springsecuritydemo.config.ReplicaDataSourceProperties;
+import school.faang.springsecuritydemo.profiling.RefreshTokenDbEvent;
 import school.faang.springsecuritydemo.repository.RefreshTokenRepository;
+import school.faang.springsecuritydemo.util.JwtTokenUtils;
+import school.faang.springsecuritydemo.util.TokenHashUtils;
 
+/**
+ * Сервис для выпуска и использования refresh-токенов.
+ * <p>
+ * В базе данных хранится только SHA-256 дайджест токена, поиск выполняется по уникальному индексу.
+ * Формат самого токена задается `security.jwt.refresh-token-mode`.
+ * Каждый запрос к таблице отмечается событием JFR {@link RefreshTokenDbEvent}.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class RefreshTokenService {
 
+    // Длина случайной части opaque refresh-токена в байтах
+    private static final int OPAQUE_TOKEN_LENGTH = 32;
+
+    // Количество истекших записей, удаляемых одним запросом
+    private static final int PURGE_BATCH_SIZE = 1000;
+
     private final RefreshTokenRepository refreshTokenRepository;
 
+    private final ReplicaDataSourceProperties replicaProperties;
+
+    private final SecurityConstants securityConstants;
+
+    private final JwtTokenUtils jwtTokenUtils;
+
+    private final UserService userService;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * Выпуск refresh-токена для пользователя и сохранение его дайджеста.
+     *
+     * @param userDetails данные пользователя.
+     * @return refresh-токен в формате, заданном `security.jwt.refresh-token-mode`.
+     */
     @Transactional
-    public void save(RefreshToken refreshToken) {
-        refreshTokenRepository.save(refreshToken);
+    public String create(CustomUserDetails userDetails) {
+        var token = securityConstants.getRefreshTokenMode() == SecurityConstants.RefreshTokenMode.JWT
+                ? jwtTokenUtils.generateRefreshToken(userDetails)
+                : generateOpaqueToken();
+        var tokenHash = TokenHashUtils.sha256(token);
+        var event = begin();
+        int rows = 0;
+        boolean failed = true;
+        try {
+            rows = refreshTokenRepository.insert(userDetails.getId(), tokenHash,
+                    Instant.now().plusMillis(securityConstants.getRefreshLifetime()));
+            failed = false;
+        } finally {
+            commit(event, RefreshTokenDbEvent.INSERT, rows, failed);
+        }
+        return token;
     }
 
     public boolean existsByToken(String token) {
-        return refreshTokenRepository.existsRefreshTokenByToken(token);
+        var tokenHash = TokenHashUtils.sha256(token);
+        var event = begin();
+        boolean exists = false;
+        boolean failed = true;
+        try {
+            exists = refreshTokenRepository.existsByTokenHashAndExpiresAtAfter(tokenHash, Instant.now());
+            failed = false;
+            return exists;
+        } finally {
+            commit(event, RefreshTokenDbEvent.EXISTS, exists ? 1 : 0, failed);
+        }
+    }
+
+    /**
+     * Использование refresh-токена: токен удаляется, если он существует и не истек.
+     *
+     * @param token refresh-токен.
+     * @return идентификатор владельца токена или пустое значение, если токен не действителен.
+     */
+    @Transactional
+    public Optional<Long> consume(String token) {
+        var tokenHash = TokenHashUtils.sha256(token);
+        var event = begin();
+        Optional<Long> userId = Optional.empty();
+        boolean failed = true;
+        try {
+            userId = refreshTokenRepository.consume(tokenHash);
+            failed = false;
+            return userId;
+        } finally {
+            commit(event, RefreshTokenDbEvent.CONSUME, userId.isPresent() ? 1 : 0, failed);
+        }
+    }
+
+    /**
+     * Ротация refresh-токена: использование старого, загрузка владельца и выпуск нового в одной транзакции.
+     * <p>
+     * Если загрузка пользователя или сохранение нового токена завершится ошибкой, удаление старого
+     * токена откатывается и пользователь может повторить обновление. Пользователь читается
+     * на основной базе, поэтому отставание реплики не влияет на результат.
+     *
+     * @param token refresh-токен.
+     * @return владелец и новый refresh-токен или пустое значение, если старый токен не действителен.
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String token) {
+        return consume(token).map(userId -> {
+            CustomUserDetails userDetails = userService.loadUserById(userId);
+            return new Rotation(userDetails, create(userDetails));
+        });
+    }
+
+    /**
+     * Предварительная проверка refresh-токена в формате JWT перед ротацией.
+     * <p>
+     * Проверка выполняется на реплике и отсекает отозванные токены до обращения к основной базе.
+     * Токены моложе `datasource.replica.lag-tolerance` пропускаются, так как реплика могла
+     * еще не получить их. Окончательное решение принимает {@link #consume(String)}.
+     * Без реплики проверка не выполняется: использование токена на основной базе сделает ее само.
+     *
+     * @param token    refresh-токен.
+     * @param issuedAt время выпуска токена.
+     * @return {@code false}, если токен точно отозван.
+     */
+    public boolean isActive(String token, Instant issuedAt) {
+        if (!replicaProperties.isEnabled()
+                || issuedAt.isAfter(Instant.now().minus(replicaProperties.getLagTolerance()))) {
+            return true;
+        }
+        return existsByToken(token);
     }
 
     @Transactional
     public void deleteByToken(String token) {
-        refreshTokenRepository.deleteByToken(token);
+        var tokenHash = TokenHashUtils.sha256(token);
+        var event = begin();
+        int rows = 0;
+        boolean failed = true;
+        try {
+            rows = refreshTokenRepository.deleteByTokenHash(tokenHash);
+            failed = false;
+        } finally {
+            commit(event, RefreshTokenDbEvent.DELETE, rows, failed);
+        }
+    }
+
+    /**
+     * Удаление истекших refresh-токенов порциями, каждая порция в своей транзакции.
+     * <p>
+     * {@link #consume(String)} удаляет только действующие токены, поэтому без очистки
+     * таблица росла бы на каждый неиспользованный токен.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-purge-interval:1h}")
+    public void purgeExpired() {
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpired(PURGE_BATCH_SIZE);
+            purged += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        if (purged > 0) {
+            log.info("Удалено истекших refresh-токенов: {}", purged);
+        }
+    }
+
+    /**
+     * Результат ротации refresh-токена.
+     *
+     * @param userDetails  владелец токена.
+     * @param refreshToken новый refresh-токен.
+     */
+    public record Rotation(CustomUserDetails userDetails, String refreshToken) {
+    }
+
+    private static RefreshTokenDbEvent begin() {
+        var event = new RefreshTokenDbEvent();
+        event.begin();
+        return event;
+    }
+
+    // Поля заполняются только для записываемых событий, при выключенном событии это одна проверка
+    private static void commit(RefreshTokenDbEvent event, String operation, int rows, boolean failed) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.rows = rows;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    private String generateOpaqueToken() {
+        byte[] bytes = new byte[OPAQUE_TOKEN_LENGTH];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
 }
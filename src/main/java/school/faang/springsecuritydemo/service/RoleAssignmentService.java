@@ -0,0 +1,166 @@
+package school.faang.springsecuritydemo.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongFunction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import school.faang.springsecuritydemo.domain.Role;
+import school.faang.springsecuritydemo.dto.request.RoleAssignmentRequest.Action;
+import school.faang.springsecuritydemo.dto.response.RoleAssignmentResponse;
+import school.faang.springsecuritydemo.invalidation.InvalidationBus;
+import school.faang.springsecuritydemo.invalidation.InvalidationEvent;
+import school.faang.springsecuritydemo.repository.RoleRepository;
+import school.faang.springsecuritydemo.repository.UserRepository;
+
+/**
+ * Массовая выдача и отзыв ролей.
+ * <p>
+ * Пользователи обрабатываются порциями по {@link #CHUNK_SIZE} в порядке идентификаторов, каждая порция
+ * в своей транзакции: `INSERT ... ON CONFLICT DO NOTHING` или `DELETE` по `users_roles` одним
+ * выражением без загрузки сущностей. Поэтому блокировки держатся недолго, а прерванная операция
+ * может быть безопасно повторена.
+ * <p>
+ * Для пользователей, у которых роль действительно изменилась, в той же транзакции записывается
+ * время изменения ролей (`users.roles_changed_at`). После фиксации порции с этим же временем
+ * публикуются события шины инвалидации: {@link InvalidationEvent.Topic#USER} очищает кэш данных
+ * пользователя, {@link InvalidationEvent.Topic#TOKEN} отзывает выпущенные access токены со старыми ролями.
+ * Экземпляры, пропустившие события, восстанавливают отзывы из `roles_changed_at`.
+ * Refresh-токены не удаляются: при обновлении роли загружаются заново, поэтому пользователю
+ * не нужно логиниться повторно.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoleAssignmentService {
+
+    public static final int CHUNK_SIZE = 1000;
+
+    // Максимальное количество идентификаторов в одном запросе, больше — через запрос по имени или email
+    public static final int MAX_USER_IDS = 100_000;
+
+    private final RoleService roleService;
+
+    private final RoleRepository roleRepository;
+
+    private final UserRepository userRepository;
+
+    private final InvalidationBus invalidationBus;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Выдача или отзыв роли у пользователей из списка. Несуществующие идентификаторы пропускаются.
+     *
+     * @param roleName имя роли.
+     * @param action   выдача или отзыв.
+     * @param userIds  идентификаторы пользователей.
+     * @return количество подходящих и измененных пользователей.
+     * @throws java.util.NoSuchElementException если роли с таким именем нет.
+     */
+    public RoleAssignmentResponse assignToUsers(String roleName, Action action, Collection<Long> userIds) {
+        long[] ids = userIds.stream().mapToLong(Long::longValue).filter(id -> id > 0).sorted().distinct().toArray();
+        return assign(roleName, action, afterId -> nextChunk(ids, afterId));
+    }
+
+    /**
+     * Выдача или отзыв роли у пользователей, имя которых начинается с префикса.
+     *
+     * @param roleName имя роли.
+     * @param action   выдача или отзыв.
+     * @param prefix   префикс имени пользователя.
+     * @return количество подходящих и измененных пользователей.
+     * @throws java.util.NoSuchElementException если роли с таким именем нет.
+     */
+    public RoleAssignmentResponse assignByUsernamePrefix(String roleName, Action action, String prefix) {
+        var pattern = AdminUserService.escapeLike(prefix) + "%";
+        return assign(roleName, action, afterId -> userRepository.findIdsByUsernameLike(pattern, afterId, CHUNK_SIZE));
+    }
+
+    /**
+     * Выдача или отзыв роли у пользователей, email которых содержит строку (без учета регистра).
+     *
+     * @param roleName имя роли.
+     * @param action   выдача или отзыв.
+     * @param email    часть email.
+     * @return количество подходящих и измененных пользователей.
+     * @throws java.util.NoSuchElementException если роли с таким именем нет.
+     */
+    public RoleAssignmentResponse assignByEmail(String roleName, Action action, String email) {
+        var pattern = "%" + AdminUserService.escapeLike(email) + "%";
+        return assign(roleName, action, afterId -> userRepository.findIdsByEmailLike(pattern, afterId, CHUNK_SIZE));
+    }
+
+    /**
+     * @param chunks порция идентификаторов по возрастанию, следующих за переданным.
+     */
+    private RoleAssignmentResponse assign(String roleName, Action action, LongFunction<List<Long>> chunks) {
+        Role role = roleService.getRole(roleName);
+        long matched = 0;
+        long changed = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            // Выборка порции и изменение в одной транзакции на основной базе
+            Chunk chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = chunks.apply(from);
+                if (ids.isEmpty()) {
+                    return new Chunk(ids, List.of(), null);
+                }
+                List<Long> changedIds = apply(role, action, ids);
+                Instant changedAt = Instant.now();
+                if (!changedIds.isEmpty()) {
+                    userRepository.markRolesChanged(changedIds, changedAt);
+                }
+                return new Chunk(ids, changedIds, changedAt);
+            });
+            if (chunk == null || chunk.ids().isEmpty()) {
+                break;
+            }
+            matched += chunk.ids().size();
+            changed += chunk.changedIds().size();
+            invalidate(chunk.changedIds(), chunk.changedAt());
+            if (chunk.ids().size() < CHUNK_SIZE) {
+                break;
+            }
+            afterId = chunk.ids().get(chunk.ids().size() - 1);
+        }
+        return new RoleAssignmentResponse(role.getName(), action, matched, changed);
+    }
+
+    private List<Long> apply(Role role, Action action, List<Long> userIds) {
+        return action == Action.GRANT
+                ? roleRepository.grant(role.getId(), userIds)
+                : roleRepository.revoke(role.getId(), userIds);
+    }
+
+    private void invalidate(List<Long> userIds, Instant changedAt) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        long publishedAt = changedAt.toEpochMilli();
+        List<InvalidationEvent> events = new ArrayList<>(userIds.size() * 2);
+        for (Long userId : userIds) {
+            events.add(new InvalidationEvent(InvalidationEvent.Topic.USER, userId.toString(), publishedAt));
+            events.add(new InvalidationEvent(InvalidationEvent.Topic.TOKEN, userId.toString(), publishedAt));
+        }
+        invalidationBus.publishAll(events);
+    }
+
+    private static List<Long> nextChunk(long[] sortedIds, long afterId) {
+        int start = Arrays.binarySearch(sortedIds, afterId);
+        start = start >= 0 ? start + 1 : -start - 1;
+        int end = Math.min(sortedIds.length, start + CHUNK_SIZE);
+        List<Long> chunk = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            chunk.add(sortedIds[i]);
+        }
+        return chunk;
+    }
+
+    private record Chunk(List<Long> ids, List<Long> changedIds, Instant changedAt) {
+    }
+}
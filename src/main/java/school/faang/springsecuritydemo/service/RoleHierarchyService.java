@@ -0,0 +1,219 @@
+package school.faang.springsecuritydemo.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import school.faang.springsecuritydemo.domain.Role;
+import school.faang.springsecuritydemo.invalidation.InvalidationEvent;
+import school.faang.springsecuritydemo.invalidation.InvalidationListener;
+import school.faang.springsecuritydemo.repository.RoleRepository;
+
+/**
+ * Иерархия ролей из таблицы `roles_hierarchy`.
+ * <p>
+ * В токен записываются только роли, назначенные пользователю, а включенные роли (например,
+ * `ROLE_USER` для `ROLE_ADMIN`) добавляются при аутентификации запроса. Транзитивное замыкание
+ * вычисляется при старте в неизменяемые наборы прав, поэтому набор действующих прав запроса
+ * получается одним обращением к карте, без обхода графа при каждой проверке.
+ * <p>
+ * Роли и иерархия меняются только миграциями, приложение их не изменяет. Событие
+ * {@link InvalidationEvent.Topic#ROLE} шины инвалидации (например, отправленное через `pg_notify`
+ * после ручного изменения) и переподключение шины запускают перезагрузку в фоновом потоке.
+ * До ее завершения запросы используют предыдущее замыкание, а при ошибке загрузки оно сохраняется.
+ */
+@Slf4j
+@Service
+public class RoleHierarchyService implements InvalidationListener {
+
+    // Ограничение числа кэшируемых сочетаний ролей
+    private static final int MAX_COMBINATIONS = 1024;
+
+    private static final String RELOAD_THREAD_NAME = "role-hierarchy-reload";
+
+    private final RoleRepository roleRepository;
+
+    // Однопоточный исполнитель: перезагрузки выполняются по очереди, более поздняя не затирается ранней
+    private final Executor reloadExecutor;
+
+    // Текущее замыкание, null только до первой загрузки
+    private volatile Closure closure;
+
+    // Перезагрузка поставлена в очередь и еще не начата, повторные события к ней присоединяются
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+
+    @Autowired
+    public RoleHierarchyService(RoleRepository roleRepository) {
+        this(roleRepository, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, RELOAD_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    RoleHierarchyService(RoleRepository roleRepository, Executor reloadExecutor) {
+        this.roleRepository = roleRepository;
+        this.reloadExecutor = reloadExecutor;
+    }
+
+    /**
+     * Действующие права для ролей из токена с учетом иерархии.
+     *
+     * @param roles роли из токена.
+     * @return неизменяемый набор прав, общий для всех запросов с теми же ролями.
+     */
+    public Collection<GrantedAuthority> getAuthorities(List<String> roles) {
+        Closure current = closure;
+        if (current == null) {
+            current = loadInitial();
+        }
+        return current.resolve(roles);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        loadInitial();
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.topic() == InvalidationEvent.Topic.ROLE) {
+            scheduleReload();
+        }
+    }
+
+    @Override
+    public void onResync() {
+        scheduleReload();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloadExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void scheduleReload() {
+        if (reloadPending.compareAndSet(false, true)) {
+            reloadExecutor.execute(this::reload);
+        }
+    }
+
+    private void reload() {
+        // Событие, пришедшее во время загрузки, поставит следующую перезагрузку
+        reloadPending.set(false);
+        try {
+            Closure loaded = load();
+            synchronized (this) {
+                closure = loaded;
+            }
+        } catch (RuntimeException e) {
+            log.error("Не удалось перезагрузить иерархию ролей, используется предыдущая", e);
+        }
+    }
+
+    /**
+     * Синхронная загрузка при старте, пока предыдущего замыкания нет.
+     */
+    private synchronized Closure loadInitial() {
+        Closure current = closure;
+        if (current == null) {
+            current = load();
+            closure = current;
+        }
+        return current;
+    }
+
+    private Closure load() {
+        // Граф иерархии: роль -> непосредственно включенные роли
+        Map<String, List<String>> children = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            children.putIfAbsent(role.getName(), new ArrayList<>());
+        }
+        for (RoleRepository.RoleEdge edge : roleRepository.findHierarchy()) {
+            children.computeIfAbsent(edge.getParent(), name -> new ArrayList<>()).add(edge.getChild());
+            children.putIfAbsent(edge.getChild(), new ArrayList<>());
+        }
+        return new Closure(children);
+    }
+
+    /**
+     * Неизменяемое транзитивное замыкание иерархии.
+     */
+    private static final class Closure {
+
+        // Общие экземпляры прав по имени роли
+        private final Map<String, GrantedAuthority> authorities = new HashMap<>();
+
+        // Роль -> сама роль и все включенные в нее роли
+        private final Map<String, List<GrantedAuthority>> closure = new HashMap<>();
+
+        // Наборы прав для нескольких ролей, вычисляются при первом обращении
+        private final ConcurrentMap<List<String>, Collection<GrantedAuthority>> combinations =
+                new ConcurrentHashMap<>();
+
+        private Closure(Map<String, List<String>> children) {
+            children.keySet().forEach(role -> authorities.put(role, new SimpleGrantedAuthority(role)));
+            for (String role : children.keySet()) {
+                Set<String> reachable = new LinkedHashSet<>();
+                Deque<String> stack = new ArrayDeque<>();
+                stack.push(role);
+                while (!stack.isEmpty()) {
+                    String current = stack.pop();
+                    if (reachable.add(current)) {
+                        children.get(current).forEach(stack::push);
+                    }
+                }
+                closure.put(role, reachable.stream().map(authorities::get).toList());
+            }
+        }
+
+        private Collection<GrantedAuthority> resolve(List<String> roles) {
+            if (roles.size() == 1) {
+                List<GrantedAuthority> single = closure.get(roles.get(0));
+                if (single != null) {
+                    return single;
+                }
+            }
+            Collection<GrantedAuthority> cached = combinations.get(roles);
+            if (cached != null) {
+                return cached;
+            }
+            Set<GrantedAuthority> union = new LinkedHashSet<>();
+            for (String role : roles) {
+                List<GrantedAuthority> implied = closure.get(role);
+                if (implied != null) {
+                    union.addAll(implied);
+                } else {
+                    // Роли нет в таблице `roles`: действует только она сама
+                    union.add(new SimpleGrantedAuthority(role));
+                }
+            }
+            Collection<GrantedAuthority> result = List.copyOf(union);
+            if (combinations.size() < MAX_COMBINATIONS) {
+                combinations.putIfAbsent(List.copyOf(roles), result);
+            }
+            return result;
+        }
+    }
+}
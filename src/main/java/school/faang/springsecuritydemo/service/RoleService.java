@@ -1,16 +1,72 @@
 package school.faang.springsecuritydemo.service;
 
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import school.faang.springsecuritydemo.domain.Role;
+import school.faang.springsecuritydemo.invalidation.InvalidationEvent;
+import school.faang.springsecuritydemo.invalidation.InvalidationListener;
 import school.faang.springsecuritydemo.repository.RoleRepository;
 
+/**
+ * Сервис для работы с ролями.
+ * <p>
+ * Роли меняются редко, поэтому кэшируются локально по имени. Кэш очищается событиями
+ * {@link InvalidationEvent.Topic#ROLE} шины инвалидации.
+ */
 @Service
 @RequiredArgsConstructor
-public class RoleService {
+public class RoleService implements InvalidationListener {
+    public static final String USER_ROLE = "ROLE_USER";
+
     private final RoleRepository roleRepository;
 
+    // Роли по имени
+    private final ConcurrentMap<String, Role> roles = new ConcurrentHashMap<>();
+
+    // Поколение кэша, увеличивается при каждой инвалидации
+    private final AtomicLong generation = new AtomicLong();
+
     public Role getUserRole() {
-        return roleRepository.findByName("ROLE_USER").get();
+        return getRole(USER_ROLE);
+    }
+
+    /**
+     * Роль по имени из кэша или из базы данных.
+     *
+     * @param name имя роли.
+     * @return роль.
+     * @throws NoSuchElementException если роли с таким именем нет.
+     */
+    public Role getRole(String name) {
+        Role cached = roles.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        Role role = roleRepository.findByName(name).orElseThrow();
+        roles.put(name, role);
+        // Инвалидация во время загрузки: прочитанное значение могло устареть
+        if (generation.get() != loadedAt) {
+            roles.remove(name, role);
+        }
+        return role;
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.topic() == InvalidationEvent.Topic.ROLE) {
+            generation.incrementAndGet();
+            roles.remove(event.key());
+        }
+    }
+
+    @Override
+    public void onResync() {
+        generation.incrementAndGet();
+        roles.clear();
     }
 }
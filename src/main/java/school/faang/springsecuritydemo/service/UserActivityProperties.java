@@ -0,0 +1,34 @@
+package school.faang.springsecuritydemo.service;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки учета активности пользователей (`users.last_login_at`, `users.last_seen_at`).
+ * <p>
+ * Все значения берутся из конфигурационного файла с префиксом `activity`.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "activity")
+public class UserActivityProperties {
+
+    /**
+     * Включение учета активности
+     */
+    private boolean enabled = true;
+
+    /**
+     * Интервал записи накопленной активности в базу данных
+     */
+    private Duration flushInterval = Duration.ofSeconds(30);
+
+    /**
+     * Максимальное количество пользователей в одном UPDATE
+     */
+    private int batchSize = 1000;
+}
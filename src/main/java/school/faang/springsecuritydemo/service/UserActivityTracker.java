@@ -0,0 +1,160 @@
+package school.faang.springsecuritydemo.service;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Учет времени последнего логина и последнего запроса пользователей.
+ * <p>
+ * Запросы только обновляют отметку в памяти (остается максимальная отметка на пользователя),
+ * а раз в `activity.flush-interval` накопленные отметки записываются одним
+ * `UPDATE ... FROM (VALUES ...)` на пакет. Поэтому количество записей в `users` ограничено
+ * числом активных пользователей за интервал, а не числом запросов, и чтение не становится записью.
+ * <p>
+ * {@code GREATEST} в запросе не дает отметке уменьшиться, если несколько экземпляров сервиса
+ * записывают активность одного пользователя в разном порядке. При ошибке записи отметки
+ * возвращаются в память и записываются в следующий раз.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserActivityTracker {
+
+    private static final String UPDATE_PREFIX = """
+            UPDATE users u
+            SET last_login_at = GREATEST(u.last_login_at, v.login_at),
+                last_seen_at  = GREATEST(u.last_seen_at, v.seen_at)
+            FROM (VALUES\s""";
+
+    private static final String UPDATE_SUFFIX = """
+            ) AS v (id, login_at, seen_at)
+            WHERE u.id = v.id""";
+
+    private static final String ROW_PLACEHOLDERS = "(?::bigint, ?::timestamptz, ?::timestamptz)";
+
+    private final UserActivityProperties properties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Идентификатор пользователя -> время последнего логина (мс)
+    private final ConcurrentHashMap<Long, Long> lastLogin = new ConcurrentHashMap<>();
+
+    // Идентификатор пользователя -> время последнего запроса (мс)
+    private final ConcurrentHashMap<Long, Long> lastSeen = new ConcurrentHashMap<>();
+
+    /**
+     * Отметка успешного логина, логин также считается запросом пользователя.
+     *
+     * @param userId идентификатор пользователя.
+     */
+    public void recordLogin(Long userId) {
+        if (isTracked(userId)) {
+            long now = System.currentTimeMillis();
+            lastLogin.merge(userId, now, Math::max);
+            lastSeen.merge(userId, now, Math::max);
+        }
+    }
+
+    /**
+     * Отметка запроса пользователя с действующим токеном.
+     *
+     * @param userId идентификатор пользователя из токена.
+     */
+    public void recordSeen(Long userId) {
+        if (isTracked(userId)) {
+            lastSeen.merge(userId, System.currentTimeMillis(), Math::max);
+        }
+    }
+
+    /**
+     * Запись накопленных отметок в базу данных.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${activity.flush-interval:30s}")
+    public void flush() {
+        if (lastLogin.isEmpty() && lastSeen.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> logins = drain(lastLogin);
+        Map<Long, Long> seen = drain(lastSeen);
+        // Строки упорядочены по идентификатору, чтобы параллельные UPDATE разных экземпляров
+        // блокировали строки в одном порядке
+        TreeMap<Long, long[]> rows = new TreeMap<>();
+        logins.forEach((id, at) -> rows.computeIfAbsent(id, k -> new long[2])[0] = at);
+        seen.forEach((id, at) -> rows.computeIfAbsent(id, k -> new long[2])[1] = at);
+
+        List<Map.Entry<Long, long[]>> batch = new ArrayList<>(Math.min(rows.size(), properties.getBatchSize()));
+        for (Map.Entry<Long, long[]> row : rows.entrySet()) {
+            batch.add(row);
+            if (batch.size() == properties.getBatchSize()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Map.Entry<Long, long[]>> batch) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX);
+        Object[] args = new Object[batch.size() * 3];
+        int i = 0;
+        for (Map.Entry<Long, long[]> row : batch) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            long[] at = row.getValue();
+            args[i++] = row.getKey();
+            args[i++] = at[0] == 0 ? null : new Timestamp(at[0]);
+            args[i++] = at[1] == 0 ? null : new Timestamp(at[1]);
+        }
+        sql.append(UPDATE_SUFFIX);
+        try {
+            jdbcTemplate.update(sql.toString(), args);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось записать активность {} пользователей, повтор при следующей записи", batch.size(), e);
+            for (Map.Entry<Long, long[]> row : batch) {
+                long[] at = row.getValue();
+                if (at[0] != 0) {
+                    lastLogin.merge(row.getKey(), at[0], Math::max);
+                }
+                if (at[1] != 0) {
+                    lastSeen.merge(row.getKey(), at[1], Math::max);
+                }
+            }
+        }
+    }
+
+    /**
+     * Извлечение отметок: запись удаляется, только если ее не обновили во время извлечения,
+     * иначе более новая отметка останется до следующей записи.
+     */
+    private static Map<Long, Long> drain(ConcurrentHashMap<Long, Long> source) {
+        Map<Long, Long> drained = new TreeMap<>();
+        for (Map.Entry<Long, Long> entry : source.entrySet()) {
+            Long id = entry.getKey();
+            Long at = entry.getValue();
+            drained.put(id, at);
+            source.remove(id, at);
+        }
+        return drained;
+    }
+
+    // Синтетические токены (например, прогрева) не содержат идентификатора пользователя
+    private boolean isTracked(Long userId) {
+        return properties.isEnabled() && userId != null && userId > 0;
+    }
+}
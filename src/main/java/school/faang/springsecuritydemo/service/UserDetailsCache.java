@@ -0,0 +1,174 @@
+package school.faang.springsecuritydemo.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import school.faang.springsecuritydemo.auth.CustomUserDetails;
+import school.faang.springsecuritydemo.auth.SecurityConstants;
+import school.faang.springsecuritydemo.invalidation.InvalidationEvent;
+import school.faang.springsecuritydemo.invalidation.InvalidationListener;
+
+/**
+ * Локальный кэш данных пользователей для {@link UserService}.
+ * <p>
+ * Записи удаляются по событиям {@link InvalidationEvent.Topic#USER} шины инвалидации, поэтому
+ * изменения, сделанные через сервис на любом экземпляре, доходят до всех экземпляров без проверки
+ * базы данных на каждый запрос. Изменения в обход сервиса (блокировка учетной записи или смена
+ * пароля в SQL) событий не публикуют, поэтому запись живет не дольше времени жизни access токена
+ * и затем загружается заново. Число записей ограничено, при превышении вытесняются
+ * давно не использованные.
+ * <p>
+ * Каждая инвалидация увеличивает поколение кэша. Значение, загруженное из базы данных, сохраняется
+ * только если за время загрузки поколение не изменилось, иначе прочитанные до инвалидации
+ * данные могли бы остаться в кэше.
+ * <p>
+ * Кэш используется при логине и обновлении токенов, а не на каждый запрос, поэтому
+ * доступ к нему выполняется под общей блокировкой, а загрузка из базы — вне ее.
+ */
+@Component
+public class UserDetailsCache implements InvalidationListener {
+
+    // Максимальное число записей, сверх него вытесняются давно не использованные
+    private static final int MAX_SIZE = 10_000;
+
+    private final long ttlNanos;
+
+    private final int maxSize;
+
+    private final LongSupplier nanoClock;
+
+    // Идентификатор -> запись в порядке обращений
+    private final LinkedHashMap<Long, Entry> byId;
+
+    // Имя пользователя -> идентификатор
+    private final Map<String, Long> byUsername = new HashMap<>();
+
+    // Поколение кэша, увеличивается при каждой инвалидации
+    private long generation;
+
+    @Autowired
+    public UserDetailsCache(SecurityConstants securityConstants) {
+        this(Duration.ofMillis(securityConstants.getAccessLifetime()), MAX_SIZE, System::nanoTime);
+    }
+
+    UserDetailsCache(Duration ttl, int maxSize, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.nanoClock = nanoClock;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= UserDetailsCache.this.maxSize) {
+                    return false;
+                }
+                byUsername.remove(eldest.getValue().userDetails().getUsername(), eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Данные пользователя по имени из кэша или из загрузчика.
+     *
+     * @param username имя пользователя.
+     * @param loader   загрузка данных из базы данных.
+     * @return данные пользователя.
+     */
+    public CustomUserDetails getByUsername(String username, Supplier<CustomUserDetails> loader) {
+        synchronized (this) {
+            Long id = byUsername.get(username);
+            CustomUserDetails cached = id != null ? getFresh(id) : null;
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return load(loader);
+    }
+
+    /**
+     * Данные пользователя по идентификатору из кэша или из загрузчика.
+     *
+     * @param id     идентификатор пользователя.
+     * @param loader загрузка данных из базы данных.
+     * @return данные пользователя.
+     */
+    public CustomUserDetails getById(Long id, Supplier<CustomUserDetails> loader) {
+        synchronized (this) {
+            CustomUserDetails cached = getFresh(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return load(loader);
+    }
+
+    @Override
+    public synchronized void onInvalidation(InvalidationEvent event) {
+        if (event.topic() != InvalidationEvent.Topic.USER) {
+            return;
+        }
+        generation++;
+        remove(Long.valueOf(event.key()));
+    }
+
+    @Override
+    public synchronized void onResync() {
+        generation++;
+        byUsername.clear();
+        byId.clear();
+    }
+
+    /**
+     * @return данные из действующей записи или {@code null}, если записи нет или она истекла.
+     */
+    private CustomUserDetails getFresh(Long id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.loadedAtNanos() >= ttlNanos) {
+            remove(id);
+            return null;
+        }
+        return entry.userDetails();
+    }
+
+    private void remove(Long id) {
+        Entry removed = byId.remove(id);
+        if (removed != null) {
+            byUsername.remove(removed.userDetails().getUsername(), id);
+        }
+    }
+
+    private CustomUserDetails load(Supplier<CustomUserDetails> loader) {
+        long loadedAt;
+        synchronized (this) {
+            loadedAt = generation;
+        }
+        long loadedAtNanos = nanoClock.getAsLong();
+        CustomUserDetails userDetails = loader.get();
+        synchronized (this) {
+            // Инвалидация во время загрузки: прочитанные данные могли устареть и не сохраняются
+            if (generation == loadedAt) {
+                remove(userDetails.getId());
+                byId.put(userDetails.getId(), new Entry(userDetails, loadedAtNanos));
+                byUsername.put(userDetails.getUsername(), userDetails.getId());
+            }
+        }
+        return userDetails;
+    }
+
+    /**
+     * Запись кэша.
+     *
+     * @param userDetails   данные пользователя.
+     * @param loadedAtNanos момент начала загрузки, от него отсчитывается время жизни.
+     */
+    private record Entry(CustomUserDetails userDetails, long loadedAtNanos) {
+    }
+}
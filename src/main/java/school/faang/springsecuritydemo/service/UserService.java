@@ -1,7 +1,6 @@
 package school.faang.springsecuritydemo.service;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -14,9 +13,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import school.faang.springsecuritydemo.auth.CustomUserDetails;
+import school.faang.springsecuritydemo.auth.JwtPrincipal;
 import school.faang.springsecuritydemo.domain.User;
 import school.faang.springsecuritydemo.dto.request.RegistrationUserRequest;
 import school.faang.springsecuritydemo.dto.response.CurrentUserResponse;
+import school.faang.springsecuritydemo.profiling.UserLoadEvent;
 import school.faang.springsecuritydemo.repository.UserRepository;
 
 /**
@@ -33,42 +34,62 @@ public class UserService implements UserDetailsService {
     // Репозиторий для работы с пользователями
     private final UserRepository userRepository;
 
-    // Сервис для работы с ролями пользователей
-    private final RoleService roleService;
-
     // Кодировщик паролей для безопасного хранения паролей
     private final PasswordEncoder passwordEncoder;
 
+    // Локальный кэш данных пользователей, очищается шиной инвалидации
+    private final UserDetailsCache userDetailsCache;
+
     /**
      * Загрузка пользователя по имени пользователя.
      * <p>
-     * Этот метод загружает пользователя из базы данных по имени пользователя,
-     * а также извлекает его роли и создает объект `CustomUserDetails`, который используется для аутентификации.
+     * Этот метод возвращает пользователя из локального кэша, а при его отсутствии загружает пользователя
+     * вместе с ролями из базы данных и создает объект `CustomUserDetails`, который используется для аутентификации.
+     * Кэш очищается событиями шины инвалидации, поэтому транзакция открывается только при промахе.
      *
      * @param username имя пользователя для поиска.
      * @return объект `CustomUserDetails` с данными о пользователе.
      * @throws UsernameNotFoundException если пользователь с таким именем не найден.
      */
     @Override
-    @Transactional
     public CustomUserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // Поиск пользователя по имени
-        User user = findByUsername(username).orElseThrow(() -> new UsernameNotFoundException(
-                String.format("Пользователь '%s' не найден", username)
-        ));
-
-        // Преобразование ролей пользователя в список SimpleGrantedAuthority
-        Collection<SimpleGrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName()))
-                .toList();
+        var event = new UserLoadEvent();
+        event.begin();
+        try {
+            var userDetails = userDetailsCache.getByUsername(username, () -> toUserDetails(
+                    // Поиск пользователя по имени
+                    userRepository.findWithRolesByUsername(username).orElseThrow(() -> new UsernameNotFoundException(
+                            String.format("Пользователь '%s' не найден", username)
+                    ))));
+            event.found = true;
+            return userDetails;
+        } finally {
+            commit(event, UserLoadEvent.BY_USERNAME);
+        }
+    }
 
-        // Возвращаем объект CustomUserDetails
-        return new CustomUserDetails(
-                user.getId(),
-                user.getUsername(),
-                user.getPassword(),
-                authorities
-        );
+    /**
+     * Загрузка пользователя по идентификатору.
+     * <p>
+     * Используется при обновлении токенов, когда владелец refresh-токена известен по записи в базе данных.
+     *
+     * @param id идентификатор пользователя.
+     * @return объект `CustomUserDetails` с данными о пользователе.
+     * @throws UsernameNotFoundException если пользователь с таким идентификатором не найден.
+     */
+    public CustomUserDetails loadUserById(Long id) throws UsernameNotFoundException {
+        var event = new UserLoadEvent();
+        event.begin();
+        try {
+            var userDetails = userDetailsCache.getById(id, () -> toUserDetails(
+                    userRepository.findWithRolesById(id).orElseThrow(() -> new UsernameNotFoundException(
+                            String.format("Пользователь с идентификатором %d не найден", id)
+                    ))));
+            event.found = true;
+            return userDetails;
+        } finally {
+            commit(event, UserLoadEvent.BY_ID);
+        }
     }
 
     /**
@@ -80,6 +101,7 @@ public class UserService implements UserDetailsService {
      * @param username имя пользователя для поиска.
      * @return `Optional<User>` с найденным пользователем или пустым значением, если пользователь не найден.
      */
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -87,35 +109,42 @@ public class UserService implements UserDetailsService {
     /**
      * Регистрация нового пользователя.
      * <p>
-     * Этот метод создает нового пользователя, кодирует его пароль с использованием
-     * `PasswordEncoder`, присваивает ему роль пользователя и сохраняет в базе данных.
+     * Этот метод кодирует пароль с использованием `PasswordEncoder` до обращения к базе данных,
+     * а затем одним запросом сохраняет пользователя и присваивает ему роль пользователя.
+     * Проверка на существование имени выполняется уникальным ограничением таблицы `users`.
      *
      * @param registrationUserRequest данные для регистрации нового пользователя.
-     * @return сохраненный объект пользователя.
+     * @return идентификатор созданного пользователя или `Optional.empty()`, если имя или email уже заняты.
      */
-    public User createNewUser(RegistrationUserRequest registrationUserRequest) {
-        User user = new User();
-        user.setUsername(registrationUserRequest.getUsername());
-        user.setEmail(registrationUserRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(
-                registrationUserRequest.getPassword()));  // Кодирование пароля
-        user.setRoles(List.of(roleService.getUserRole()));  // Установка роли пользователя
-        return userRepository.save(user);  // Сохранение пользователя в базу данных
+    public Optional<Long> createNewUser(RegistrationUserRequest registrationUserRequest) {
+        return userRepository.insertIfAbsent(
+                registrationUserRequest.getUsername(),
+                passwordEncoder.encode(registrationUserRequest.getPassword()),  // Кодирование пароля
+                registrationUserRequest.getEmail(),
+                RoleService.USER_ROLE);  // Роль пользователя привязывается в том же запросе
     }
 
     /**
      * Получение информации о текущем пользователе.
      * <p>
-     * Этот метод извлекает текущего аутентифицированного пользователя из контекста безопасности
-     * и возвращает информацию о нем, такую как ID и имя пользователя.
+     * Этот метод извлекает текущего аутентифицированного пользователя из контекста безопасности.
+     * Если principal содержит идентификатор из access-токена, ответ формируется без обращения к базе данных,
+     * иначе (или при {@code fresh = true}) пользователь ищется в базе данных по имени.
      *
+     * @param fresh признак обязательного чтения данных из базы данных.
      * @return объект `CurrentUserResponse` с информацией о текущем пользователе.
      * @throws BadCredentialsException если не удается найти пользователя по имени.
      */
-    public CurrentUserResponse getCurrentUserInfo() {
+    public CurrentUserResponse getCurrentUserInfo(boolean fresh) {
         // Получение текущего аутентифицированного пользователя
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
+        // Данные из claims access-токена
+        if (!fresh && authentication.getPrincipal() instanceof JwtPrincipal principal
+                && principal.id() != null) {
+            return new CurrentUserResponse(principal.id(), principal.username());
+        }
+
         // Поиск пользователя по имени из контекста аутентификации
         var user = userRepository.findByUsername(authentication.getName()).orElseThrow(
                 () -> new BadCredentialsException("Не удалось найти пользователя по имени"));
@@ -123,5 +152,26 @@ public class UserService implements UserDetailsService {
         // Возвращение данных о текущем пользователе
         return new CurrentUserResponse(user.getId(), user.getUsername());
     }
-}
 
+    private static void commit(UserLoadEvent event, String lookup) {
+        if (event.shouldCommit()) {
+            event.lookup = lookup;
+            event.commit();
+        }
+    }
+
+    private CustomUserDetails toUserDetails(User user) {
+        // Преобразование ролей пользователя в список SimpleGrantedAuthority
+        Collection<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.getName()))
+                .toList();
+
+        // Возвращаем объект CustomUserDetails
+        return new CustomUserDetails(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                authorities
+        );
+    }
+}
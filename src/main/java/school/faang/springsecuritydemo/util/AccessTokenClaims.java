@@ -0,0 +1,17 @@
+package school.faang.springsecuritydemo.util;
+
+import java.util.List;
+
+/**
+ * Claims проверенного access токена, необходимые для аутентификации запроса.
+ *
+ * @param userId    идентификатор пользователя из claim `uid` или {@code null}, если его нет в токене.
+ * @param subject   имя пользователя из claim `sub`.
+ * @param roles     роли пользователя из claim `roles`, неизменяемый список.
+ * @param issuedAt  время выпуска токена в секундах эпохи (claim `iat`), 0 если не указано.
+ * @param expiresAt время истечения токена в секундах эпохи (claim `exp`).
+ * @param authTime  время исходной аутентификации в секундах эпохи (claim `auth_time`), 0 если не указано.
+ */
+public record AccessTokenClaims(Long userId, String subject, List<String> roles, long issuedAt, long expiresAt,
+                                long authTime) {
+}
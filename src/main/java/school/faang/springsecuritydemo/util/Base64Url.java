@@ -0,0 +1,125 @@
+package school.faang.springsecuritydemo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Кодирование и декодирование base64url (RFC 4648, раздел 5) без выравнивания между массивами байт.
+ * <p>
+ * В отличие от `java.util.Base64` работает с диапазоном исходного массива и пишет
+ * в заранее выделенный буфер, поэтому не создает промежуточных массивов и строк.
+ */
+public final class Base64Url {
+
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(
+                    StandardCharsets.US_ASCII);
+
+    private static final int[] DECODE_TABLE = new int[128];
+
+    static {
+        Arrays.fill(DECODE_TABLE, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE_TABLE[ALPHABET[i]] = i;
+        }
+    }
+
+    private Base64Url() {
+    }
+
+    /**
+     * Длина base64url-представления без выравнивания.
+     *
+     * @param length длина исходных данных в байтах.
+     * @return длина закодированных данных в байтах.
+     */
+    public static int encodedLength(int length) {
+        return (length / 3) * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+    }
+
+    /**
+     * Кодирование диапазона массива.
+     *
+     * @param src    исходные данные.
+     * @param offset начало диапазона.
+     * @param length длина диапазона.
+     * @param dst    буфер результата, должен вмещать {@link #encodedLength(int)} байт.
+     * @param dstOffset позиция записи в буфере.
+     * @return позиция в буфере после записанных данных.
+     */
+    public static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int end = offset + length;
+        int i = offset;
+        int j = dstOffset;
+        for (; i + 2 < end; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[j++] = ALPHABET[bits >>> 18];
+            dst[j++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[j++] = ALPHABET[(bits >>> 6) & 0x3f];
+            dst[j++] = ALPHABET[bits & 0x3f];
+        }
+        int remaining = end - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xff) << 16;
+            dst[j++] = ALPHABET[bits >>> 18];
+            dst[j++] = ALPHABET[(bits >>> 12) & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+            dst[j++] = ALPHABET[bits >>> 18];
+            dst[j++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[j++] = ALPHABET[(bits >>> 6) & 0x3f];
+        }
+        return j;
+    }
+
+    /**
+     * Декодирование диапазона массива без выравнивания.
+     *
+     * @param src       закодированные данные.
+     * @param offset    начало диапазона.
+     * @param length    длина диапазона.
+     * @param dst       буфер результата, должен вмещать {@code length * 3 / 4} байт.
+     * @param dstOffset позиция записи в буфере.
+     * @return позиция в буфере после записанных данных или {@code -1}, если данные не являются
+     * каноническим base64url (в том числе с ненулевыми неиспользуемыми битами в конце).
+     */
+    public static int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        if (length % 4 == 1) {
+            return -1;
+        }
+        int end = offset + length;
+        int j = dstOffset;
+        int bits = 0;
+        int count = 0;
+        for (int i = offset; i < end; i++) {
+            int c = src[i];
+            int value = c >= 0 ? DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                dst[j++] = (byte) (bits >>> 16);
+                dst[j++] = (byte) (bits >>> 8);
+                dst[j++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        // Неиспользуемые младшие биты последней группы должны быть нулевыми, иначе у одних и тех же
+        // данных было бы несколько представлений и подпись токена можно было бы изменить без ключа
+        if (count == 2) {
+            if ((bits & 0xf) != 0) {
+                return -1;
+            }
+            dst[j++] = (byte) (bits >>> 4);
+        } else if (count == 3) {
+            if ((bits & 0x3) != 0) {
+                return -1;
+            }
+            dst[j++] = (byte) (bits >>> 10);
+            dst[j++] = (byte) (bits >>> 2);
+        }
+        return j;
+    }
+}
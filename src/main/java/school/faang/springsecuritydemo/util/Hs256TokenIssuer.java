@@ -0,0 +1,261 @@
+package school.faang.springsecuritydemo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.security.core.GrantedAuthority;
+import school.faang.springsecuritydemo.auth.CustomUserDetails;
+
+/**
+ * Выпуск JWT с подписью HS256 без промежуточных объектов.
+ * <p>
+ * Заголовок токена всегда один и тот же, поэтому он закодирован заранее. Payload пишется
+ * байтами напрямую из данных пользователя в буфер потока, кодируется в base64url и подписывается
+ * `Mac`, который создается один раз на поток. Единственная аллокация на токен — итоговая строка.
+ * <p>
+ * Формат совпадает с токенами jjwt: `{"alg":"HS256"}` в заголовке и claims `roles`, `uid`, `sub`,
+ * `auth_time`, `iat`, `exp` в payload, поэтому токены проверяются любым стандартным верификатором.
+ * `auth_time` — время исходной аутентификации, при упреждающем обновлении оно переносится без изменений.
+ */
+public final class Hs256TokenIssuer {
+
+    /**
+     * Заголовок `{"alg":"HS256"}` в base64url, такой же, как у jjwt
+     */
+    static final byte[] ENCODED_HEADER = "eyJhbGciOiJIUzI1NiJ9".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int SIGNATURE_LENGTH = 32;
+
+    private final SecretKeySpec key;
+
+    private final long lifetimeMillis;
+
+    private final ThreadLocal<Buffers> buffers;
+
+    /**
+     * @param keyBytes       ключ подписи.
+     * @param lifetimeMillis время жизни токена в миллисекундах.
+     */
+    public Hs256TokenIssuer(byte[] keyBytes, long lifetimeMillis) {
+        this.key = new SecretKeySpec(keyBytes, "HmacSHA256");
+        this.lifetimeMillis = lifetimeMillis;
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(newMac(key)));
+    }
+
+    /**
+     * Выпуск токена для пользователя с текущим временем выпуска и аутентификации.
+     *
+     * @param userDetails данные пользователя.
+     * @return подписанный JWT.
+     */
+    public String issue(CustomUserDetails userDetails) {
+        return issue(userDetails.getId(), userDetails.getUsername(), userDetails.getAuthorities(),
+                GrantedAuthority::getAuthority, 0);
+    }
+
+    /**
+     * Выпуск токена с заданными claims и текущим временем выпуска и аутентификации.
+     *
+     * @param userId   идентификатор пользователя или {@code null}.
+     * @param username имя пользователя.
+     * @param roles    роли пользователя.
+     * @return подписанный JWT.
+     */
+    public String issue(Long userId, String username, Collection<String> roles) {
+        return issue(userId, username, roles, Function.identity(), 0);
+    }
+
+    /**
+     * Выпуск токена с заданными claims и временем аутентификации, перенесенным из предыдущего токена.
+     *
+     * @param userId   идентификатор пользователя или {@code null}.
+     * @param username имя пользователя.
+     * @param roles    роли пользователя.
+     * @param authTime время аутентификации в секундах эпохи, 0 — текущее время.
+     * @return подписанный JWT.
+     */
+    public String issue(Long userId, String username, Collection<String> roles, long authTime) {
+        return issue(userId, username, roles, Function.identity(), authTime);
+    }
+
+    /**
+     * Общая запись payload для обеих форм ролей, без промежуточного списка имен.
+     */
+    private <R> String issue(Long userId, String username, Collection<? extends R> roles,
+                             Function<? super R, String> roleName, long authTime) {
+        Buffers buffers = this.buffers.get();
+        buffers.reset();
+        buffers.writeAscii("{\"roles\":[");
+        boolean first = true;
+        for (R role : roles) {
+            if (!first) {
+                buffers.writeByte(',');
+            }
+            buffers.writeString(roleName.apply(role));
+            first = false;
+        }
+        buffers.writeByte(']');
+        writeClaims(buffers, userId, username, authTime);
+        return sign(buffers);
+    }
+
+    private void writeClaims(Buffers buffers, Long userId, String username, long authTime) {
+        if (userId != null) {
+            buffers.writeAscii(",\"uid\":");
+            buffers.writeLong(userId);
+        }
+        buffers.writeAscii(",\"sub\":");
+        buffers.writeString(username);
+        long now = System.currentTimeMillis();
+        buffers.writeAscii(",\"auth_time\":");
+        buffers.writeLong(authTime > 0 ? authTime : now / 1000);
+        buffers.writeAscii(",\"iat\":");
+        buffers.writeLong(now / 1000);
+        buffers.writeAscii(",\"exp\":");
+        buffers.writeLong((now + lifetimeMillis) / 1000);
+        buffers.writeByte('}');
+    }
+
+    private String sign(Buffers buffers) {
+        int payloadLength = buffers.payloadLength;
+        int tokenLength = ENCODED_HEADER.length + 1 + Base64Url.encodedLength(payloadLength)
+                + 1 + Base64Url.encodedLength(SIGNATURE_LENGTH);
+        byte[] token = buffers.token(tokenLength);
+
+        System.arraycopy(ENCODED_HEADER, 0, token, 0, ENCODED_HEADER.length);
+        int position = ENCODED_HEADER.length;
+        token[position++] = '.';
+        position = Base64Url.encode(buffers.payload, 0, payloadLength, token, position);
+
+        Mac mac = buffers.mac;
+        mac.update(token, 0, position);
+        try {
+            mac.doFinal(buffers.signature, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Не удалось подписать токен", e);
+        }
+        token[position++] = '.';
+        position = Base64Url.encode(buffers.signature, 0, SIGNATURE_LENGTH, token, position);
+        return new String(token, 0, position, StandardCharsets.ISO_8859_1);
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 не поддерживается", e);
+        }
+    }
+
+    /**
+     * Буферы потока: payload в JSON, итоговый токен и подпись.
+     */
+    private static final class Buffers {
+
+        private final Mac mac;
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private byte[] payload = new byte[256];
+        private byte[] token = new byte[512];
+        private int payloadLength;
+
+        private Buffers(Mac mac) {
+            this.mac = mac;
+        }
+
+        private void reset() {
+            payloadLength = 0;
+        }
+
+        private byte[] token(int length) {
+            if (token.length < length) {
+                token = new byte[Math.max(length, token.length * 2)];
+            }
+            return token;
+        }
+
+        private void ensure(int extra) {
+            if (payloadLength + extra > payload.length) {
+                payload = Arrays.copyOf(payload, Math.max(payloadLength + extra, payload.length * 2));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensure(1);
+            payload[payloadLength++] = (byte) value;
+        }
+
+        private void writeAscii(String value) {
+            int length = value.length();
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                payload[payloadLength++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void writeLong(long value) {
+            ensure(20);
+            if (value < 0) {
+                payload[payloadLength++] = '-';
+                value = -value;
+            }
+            int start = payloadLength;
+            do {
+                payload[payloadLength++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            // Цифры записаны в обратном порядке
+            for (int i = start, j = payloadLength - 1; i < j; i++, j--) {
+                byte digit = payload[i];
+                payload[i] = payload[j];
+                payload[j] = digit;
+            }
+        }
+
+        /**
+         * Запись строки в JSON с экранированием и кодированием в UTF-8.
+         */
+        private void writeString(String value) {
+            int length = value.length();
+            // Худший случай: \\uXXXX на каждый символ
+            ensure(length * 6 + 2);
+            payload[payloadLength++] = '"';
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    payload[payloadLength++] = '\\';
+                    payload[payloadLength++] = (byte) c;
+                } else if (c < 0x20) {
+                    payload[payloadLength++] = '\\';
+                    payload[payloadLength++] = 'u';
+                    payload[payloadLength++] = '0';
+                    payload[payloadLength++] = '0';
+                    payload[payloadLength++] = (byte) Character.forDigit(c >> 4, 16);
+                    payload[payloadLength++] = (byte) Character.forDigit(c & 0xf, 16);
+                } else if (c < 0x80) {
+                    payload[payloadLength++] = (byte) c;
+                } else if (c < 0x800) {
+                    payload[payloadLength++] = (byte) (0xc0 | c >> 6);
+                    payload[payloadLength++] = (byte) (0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    payload[payloadLength++] = (byte) (0xf0 | codePoint >> 18);
+                    payload[payloadLength++] = (byte) (0x80 | (codePoint >> 12) & 0x3f);
+                    payload[payloadLength++] = (byte) (0x80 | (codePoint >> 6) & 0x3f);
+                    payload[payloadLength++] = (byte) (0x80 | codePoint & 0x3f);
+                } else {
+                    payload[payloadLength++] = (byte) (0xe0 | c >> 12);
+                    payload[payloadLength++] = (byte) (0x80 | (c >> 6) & 0x3f);
+                    payload[payloadLength++] = (byte) (0x80 | c & 0x3f);
+                }
+            }
+            payload[payloadLength++] = '"';
+        }
+    }
+}
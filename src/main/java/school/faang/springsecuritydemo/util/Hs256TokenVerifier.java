@@ -0,0 +1,569 @@
+package school.faang.springsecuritydemo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Проверка JWT с подписью HS256 того вида, который выпускает {@link Hs256TokenIssuer}.
+ * <p>
+ * Токен копируется в буфер потока, HMAC считается прямо по байтам заголовка и payload
+ * и сравнивается с подписью за постоянное время. Из payload потоковым разбором извлекаются
+ * только `sub`, `uid`, `roles`, `auth_time`, `iat` и `exp`, без построения дерева JSON и карты claims.
+ * Ошибки возвращаются кодом {@link TokenVerification.Status}, исключения не используются.
+ * <p>
+ * Токены с другим заголовком или claims, которые требуют дополнительных проверок (`nbf`),
+ * возвращаются с кодом {@link TokenVerification.Status#UNSUPPORTED}, их проверяет jjwt.
+ */
+public final class Hs256TokenVerifier {
+
+    private static final int SIGNATURE_LENGTH = 32;
+
+    // Длина подписи HS256 в base64url без выравнивания
+    private static final int ENCODED_SIGNATURE_LENGTH = 43;
+
+    // Ограничение длины токена, защищает буферы потока от разрастания
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
+    private static final byte[] SUB = {'s', 'u', 'b'};
+    private static final byte[] UID = {'u', 'i', 'd'};
+    private static final byte[] ROLES = {'r', 'o', 'l', 'e', 's'};
+    private static final byte[] AUTH_TIME = {'a', 'u', 't', 'h', '_', 't', 'i', 'm', 'e'};
+    private static final byte[] IAT = {'i', 'a', 't'};
+    private static final byte[] EXP = {'e', 'x', 'p'};
+    private static final byte[] NBF = {'n', 'b', 'f'};
+
+    private final ThreadLocal<Buffers> buffers;
+
+    /**
+     * @param keyBytes ключ подписи.
+     */
+    public Hs256TokenVerifier(byte[] keyBytes) {
+        SecretKeySpec key = new SecretKeySpec(keyBytes, "HmacSHA256");
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(newMac(key)));
+    }
+
+    /**
+     * Проверка токена на текущий момент времени.
+     *
+     * @param token JWT.
+     * @return результат проверки.
+     */
+    public TokenVerification verify(String token) {
+        return verify(token, System.currentTimeMillis());
+    }
+
+    /**
+     * Проверка токена на заданный момент времени.
+     *
+     * @param token     JWT.
+     * @param nowMillis текущее время в миллисекундах эпохи.
+     * @return результат проверки.
+     */
+    public TokenVerification verify(String token, long nowMillis) {
+        int length = token.length();
+        if (length > MAX_TOKEN_LENGTH) {
+            return TokenVerification.MALFORMED;
+        }
+        Buffers buffers = this.buffers.get();
+        byte[] bytes = buffers.token(length);
+
+        // Копирование символов в байты с поиском разделителей
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c > 0x7f) {
+                return TokenVerification.MALFORMED;
+            }
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return TokenVerification.MALFORMED;
+                }
+            }
+            bytes[i] = (byte) c;
+        }
+        if (secondDot < 0) {
+            return TokenVerification.MALFORMED;
+        }
+        if (!isExpectedHeader(bytes, firstDot)) {
+            return TokenVerification.UNSUPPORTED;
+        }
+
+        // Проверка подписи за постоянное время
+        if (length - secondDot - 1 != ENCODED_SIGNATURE_LENGTH
+                || Base64Url.decode(bytes, secondDot + 1, ENCODED_SIGNATURE_LENGTH, buffers.signature, 0) < 0) {
+            return TokenVerification.INVALID_SIGNATURE;
+        }
+        Mac mac = buffers.mac;
+        mac.update(bytes, 0, secondDot);
+        try {
+            mac.doFinal(buffers.expected, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Не удалось вычислить подпись токена", e);
+        }
+        if (!MessageDigest.isEqual(buffers.expected, buffers.signature)) {
+            return TokenVerification.INVALID_SIGNATURE;
+        }
+
+        // Разбор payload
+        int payloadLength = Base64Url.decode(bytes, firstDot + 1, secondDot - firstDot - 1,
+                buffers.payload(secondDot - firstDot), 0);
+        if (payloadLength < 0) {
+            return TokenVerification.MALFORMED;
+        }
+        PayloadParser parser = new PayloadParser(buffers.payload, payloadLength, buffers);
+        TokenVerification.Status status = parser.parse();
+        if (status != TokenVerification.Status.VALID) {
+            return status == TokenVerification.Status.UNSUPPORTED
+                    ? TokenVerification.UNSUPPORTED : TokenVerification.MALFORMED;
+        }
+        if (nowMillis > parser.expiresAt * 1000) {
+            return TokenVerification.EXPIRED;
+        }
+        return TokenVerification.valid(new AccessTokenClaims(parser.userId, parser.subject,
+                parser.roles, parser.issuedAt, parser.expiresAt, parser.authTime));
+    }
+
+    private static boolean isExpectedHeader(byte[] bytes, int length) {
+        byte[] header = Hs256TokenIssuer.ENCODED_HEADER;
+        if (length != header.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] != header[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 не поддерживается", e);
+        }
+    }
+
+    /**
+     * Буферы потока: токен, payload, подписи и промежуточный буфер строк с экранированием.
+     */
+    private static final class Buffers {
+
+        private final Mac mac;
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private final byte[] expected = new byte[SIGNATURE_LENGTH];
+        private byte[] token = new byte[512];
+        private byte[] payload = new byte[384];
+        private byte[] scratch = new byte[128];
+
+        private Buffers(Mac mac) {
+            this.mac = mac;
+        }
+
+        private byte[] token(int length) {
+            if (token.length < length) {
+                token = new byte[Math.max(length, token.length * 2)];
+            }
+            return token;
+        }
+
+        private byte[] payload(int encodedLength) {
+            if (payload.length < encodedLength) {
+                payload = new byte[Math.max(encodedLength, payload.length * 2)];
+            }
+            return payload;
+        }
+
+        private byte[] scratch(int length) {
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            return scratch;
+        }
+    }
+
+    /**
+     * Потоковый разбор JSON-объекта payload с извлечением нужных claims.
+     * <p>
+     * Неизвестные поля пропускаются без разбора содержимого. Методы возвращают {@code false}
+     * при некорректном JSON, а флаг {@code unsupported} выставляется для корректных, но
+     * не поддерживаемых конструкций.
+     */
+    private static final class PayloadParser {
+
+        private final byte[] json;
+        private final int end;
+        private final Buffers buffers;
+        private int position;
+        private boolean unsupported;
+
+        private String subject;
+        private Long userId;
+        private List<String> roles = List.of();
+        private long issuedAt;
+        private long expiresAt;
+        private long authTime;
+        private boolean hasExpiration;
+
+        private PayloadParser(byte[] json, int end, Buffers buffers) {
+            this.json = json;
+            this.end = end;
+            this.buffers = buffers;
+        }
+
+        private TokenVerification.Status parse() {
+            boolean valid = parseObject();
+            if (unsupported) {
+                return TokenVerification.Status.UNSUPPORTED;
+            }
+            if (!valid || subject == null) {
+                return TokenVerification.Status.MALFORMED;
+            }
+            return hasExpiration ? TokenVerification.Status.VALID : TokenVerification.Status.UNSUPPORTED;
+        }
+
+        private boolean parseObject() {
+            skipWhitespace();
+            if (!consume('{')) {
+                return false;
+            }
+            skipWhitespace();
+            if (consume('}')) {
+                return trailingWhitespaceOnly();
+            }
+            while (true) {
+                skipWhitespace();
+                if (position >= end || json[position] != '"') {
+                    return false;
+                }
+                int keyStart = position + 1;
+                int keyEnd = skipString();
+                if (keyEnd < 0) {
+                    return false;
+                }
+                skipWhitespace();
+                if (!consume(':')) {
+                    return false;
+                }
+                skipWhitespace();
+                if (!parseValue(keyStart, keyEnd) || unsupported) {
+                    return false;
+                }
+                skipWhitespace();
+                if (consume(',')) {
+                    continue;
+                }
+                if (consume('}')) {
+                    return trailingWhitespaceOnly();
+                }
+                return false;
+            }
+        }
+
+        private boolean parseValue(int keyStart, int keyEnd) {
+            for (int i = keyStart; i < keyEnd; i++) {
+                if (json[i] == '\\') {
+                    // Экранированные имена claims не выпускаются нами, их разбирает jjwt
+                    unsupported = true;
+                    return false;
+                }
+            }
+            if (keyEquals(keyStart, keyEnd, SUB)) {
+                subject = readString();
+                return subject != null;
+            }
+            if (keyEquals(keyStart, keyEnd, ROLES)) {
+                return readRoles();
+            }
+            if (keyEquals(keyStart, keyEnd, UID)) {
+                if (position < end && json[position] == 'n') {
+                    return skipValue();
+                }
+                long value = readLong();
+                userId = value;
+                return !unsupported;
+            }
+            if (keyEquals(keyStart, keyEnd, AUTH_TIME)) {
+                authTime = readLong();
+                return !unsupported;
+            }
+            if (keyEquals(keyStart, keyEnd, IAT)) {
+                issuedAt = readLong();
+                return !unsupported;
+            }
+            if (keyEquals(keyStart, keyEnd, EXP)) {
+                expiresAt = readLong();
+                hasExpiration = !unsupported;
+                return hasExpiration;
+            }
+            if (keyEquals(keyStart, keyEnd, NBF)) {
+                unsupported = true;
+                return false;
+            }
+            return skipValue();
+        }
+
+        private boolean readRoles() {
+            if (!consume('[')) {
+                return false;
+            }
+            skipWhitespace();
+            if (consume(']')) {
+                roles = List.of();
+                return true;
+            }
+            String first = null;
+            List<String> many = null;
+            while (true) {
+                skipWhitespace();
+                String role = readString();
+                if (role == null) {
+                    return false;
+                }
+                if (first == null) {
+                    first = role;
+                } else {
+                    if (many == null) {
+                        many = new ArrayList<>(4);
+                        many.add(first);
+                    }
+                    many.add(role);
+                }
+                skipWhitespace();
+                if (consume(',')) {
+                    continue;
+                }
+                if (consume(']')) {
+                    roles = many == null ? List.of(first) : List.copyOf(many);
+                    return true;
+                }
+                return false;
+            }
+        }
+
+        /**
+         * Чтение целого числа. Дробные числа и экспоненты помечают токен как неподдерживаемый.
+         */
+        private long readLong() {
+            boolean negative = consume('-');
+            int start = position;
+            long value = 0;
+            while (position < end && json[position] >= '0' && json[position] <= '9') {
+                if (position - start >= 18) {
+                    unsupported = true;
+                    return 0;
+                }
+                value = value * 10 + (json[position++] - '0');
+            }
+            if (position == start) {
+                unsupported = true;
+                return 0;
+            }
+            if (position < end && (json[position] == '.' || json[position] == 'e' || json[position] == 'E')) {
+                unsupported = true;
+                return 0;
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Чтение строки. Строка без экранирования создается напрямую из байт payload.
+         *
+         * @return строка или {@code null}, если значение не является корректной строкой.
+         */
+        private String readString() {
+            if (position >= end || json[position] != '"') {
+                return null;
+            }
+            int start = position + 1;
+            int stringEnd = skipString();
+            if (stringEnd < 0) {
+                return null;
+            }
+            boolean escaped = false;
+            for (int i = start; i < stringEnd; i++) {
+                if (json[i] == '\\') {
+                    escaped = true;
+                    break;
+                }
+            }
+            if (!escaped) {
+                return new String(json, start, stringEnd - start, StandardCharsets.UTF_8);
+            }
+            return unescape(start, stringEnd);
+        }
+
+        private String unescape(int start, int stringEnd) {
+            // Экранированная строка в UTF-8 не длиннее исходной
+            byte[] out = buffers.scratch(stringEnd - start);
+            int length = 0;
+            for (int i = start; i < stringEnd; i++) {
+                byte b = json[i];
+                if (b != '\\') {
+                    out[length++] = b;
+                    continue;
+                }
+                byte escape = json[++i];
+                switch (escape) {
+                    case '"', '\\', '/' -> out[length++] = escape;
+                    case 'b' -> out[length++] = '\b';
+                    case 'f' -> out[length++] = '\f';
+                    case 'n' -> out[length++] = '\n';
+                    case 'r' -> out[length++] = '\r';
+                    case 't' -> out[length++] = '\t';
+                    case 'u' -> {
+                        int codePoint = hex(i + 1);
+                        if (codePoint < 0) {
+                            return null;
+                        }
+                        i += 4;
+                        if (Character.isHighSurrogate((char) codePoint) && i + 6 < stringEnd
+                                && json[i + 1] == '\\' && json[i + 2] == 'u') {
+                            int low = hex(i + 3);
+                            if (low >= 0 && Character.isLowSurrogate((char) low)) {
+                                codePoint = Character.toCodePoint((char) codePoint, (char) low);
+                                i += 6;
+                            }
+                        }
+                        length = writeUtf8(out, length, codePoint);
+                    }
+                    default -> {
+                        return null;
+                    }
+                }
+            }
+            return new String(out, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private int hex(int from) {
+            if (from + 4 > end) {
+                return -1;
+            }
+            int value = 0;
+            for (int i = from; i < from + 4; i++) {
+                int digit = Character.digit(json[i], 16);
+                if (digit < 0) {
+                    return -1;
+                }
+                value = value << 4 | digit;
+            }
+            return value;
+        }
+
+        private static int writeUtf8(byte[] out, int length, int codePoint) {
+            if (codePoint < 0x80) {
+                out[length++] = (byte) codePoint;
+            } else if (codePoint < 0x800) {
+                out[length++] = (byte) (0xc0 | codePoint >> 6);
+                out[length++] = (byte) (0x80 | codePoint & 0x3f);
+            } else if (codePoint < 0x10000) {
+                out[length++] = (byte) (0xe0 | codePoint >> 12);
+                out[length++] = (byte) (0x80 | (codePoint >> 6) & 0x3f);
+                out[length++] = (byte) (0x80 | codePoint & 0x3f);
+            } else {
+                out[length++] = (byte) (0xf0 | codePoint >> 18);
+                out[length++] = (byte) (0x80 | (codePoint >> 12) & 0x3f);
+                out[length++] = (byte) (0x80 | (codePoint >> 6) & 0x3f);
+                out[length++] = (byte) (0x80 | codePoint & 0x3f);
+            }
+            return length;
+        }
+
+        /**
+         * Пропуск строки, начинающейся с кавычки в текущей позиции.
+         *
+         * @return позиция закрывающей кавычки или {@code -1}, если строка не закрыта.
+         */
+        private int skipString() {
+            int i = position + 1;
+            while (i < end) {
+                byte b = json[i];
+                if (b == '"') {
+                    position = i + 1;
+                    return i;
+                }
+                if (b == '\\') {
+                    i += 2;
+                } else if (b >= 0 && b < 0x20) {
+                    return -1;
+                } else {
+                    i++;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Пропуск значения любого типа, включая вложенные объекты и массивы.
+         */
+        private boolean skipValue() {
+            int depth = 0;
+            while (position < end) {
+                byte b = json[position];
+                if (b == '"') {
+                    if (skipString() < 0) {
+                        return false;
+                    }
+                    continue;
+                }
+                if (depth == 0 && (b == ',' || b == '}' || b == ']')) {
+                    return true;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                }
+                position++;
+            }
+            return false;
+        }
+
+        private boolean keyEquals(int start, int keyEnd, byte[] name) {
+            if (keyEnd - start != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (json[start + i] != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean consume(char c) {
+            if (position < end && json[position] == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (position < end) {
+                byte b = json[position];
+                if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                    return;
+                }
+                position++;
+            }
+        }
+
+        private boolean trailingWhitespaceOnly() {
+            skipWhitespace();
+            return position == end;
+        }
+    }
+}
@@ -1,17 +1,17 @@
 package school.faang.springsecuritydemo.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import java.util.Date;
-import java.util.HashMap;
+import io.jsonwebtoken.security.SignatureException;
+import io.jsonwebtoken.io.Decoders;
 import java.util.List;
-import java.util.Map;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import school.faang.springsecuritydemo.auth.CustomUserDetails;
 import school.faang.springsecuritydemo.auth.SecurityConstants;
+import school.faang.springsecuritydemo.profiling.TokenSignEvent;
+import school.faang.springsecuritydemo.profiling.TokenVerifyEvent;
 
 /**
  * Утилитный класс для работы с JWT (JSON Web Token).
@@ -20,42 +20,73 @@ import school.faang.springsecuritydemo.auth.SecurityConstants;
  * (как access, так и refresh токенов). Используется для генерации токенов аутентификации и извлечения информации из них.
  */
 @Component
-@RequiredArgsConstructor
 public class JwtTokenUtils {
 
+    // Имя claim со списком ролей пользователя
+    public static final String ROLES_CLAIM = "roles";
+
+    // Имя claim с идентификатором пользователя
+    public static final String USER_ID_CLAIM = "uid";
+
+    // Имя claim со временем исходной аутентификации пользователя
+    public static final String AUTH_TIME_CLAIM = "auth_time";
+
     // Константы безопасности, содержащие секреты и настройки для токенов
     private final SecurityConstants securityConstants;
 
+    // Выпуск access токенов, подписанных секретом доступа
+    private final Hs256TokenIssuer accessTokenIssuer;
+
+    // Выпуск refresh токенов, подписанных секретом обновления
+    private final Hs256TokenIssuer refreshTokenIssuer;
+
+    // Проверка access токенов на горячем пути фильтра запросов
+    private final Hs256TokenVerifier accessTokenVerifier;
+
+    public JwtTokenUtils(SecurityConstants securityConstants) {
+        this.securityConstants = securityConstants;
+        // Секреты декодируются из base64 так же, как это делает jjwt при подписи строковым секретом
+        byte[] accessKey = Decoders.BASE64.decode(securityConstants.getAccessSecret());
+        this.accessTokenIssuer = new Hs256TokenIssuer(accessKey, securityConstants.getAccessLifetime());
+        this.accessTokenVerifier = new Hs256TokenVerifier(accessKey);
+        this.refreshTokenIssuer = new Hs256TokenIssuer(
+                Decoders.BASE64.decode(securityConstants.getRefreshSecret()),
+                securityConstants.getRefreshLifetime());
+    }
+
     /**
      * Генерация access токена для пользователя.
      * <p>
-     * Этот метод создает JWT access токен с использованием данных пользователя (например, его ролей),
-     * а также с указанием времени действия токена, который берется из конфигурации.
+     * Этот метод создает JWT access токен с использованием данных пользователя (его ролей
+     * и идентификатора), а также с указанием времени действия токена, который берется из конфигурации.
      *
      * @param userDetails данные пользователя, для которого генерируется токен.
      * @return JWT токен доступа.
      */
-    public String generateAccessToken(UserDetails userDetails) {
-        // Сборка данных (claims), которые будут добавлены в токен
-        Map<String, Object> claims = new HashMap<>();
-        List<String> rolesList = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .toList();
-        claims.put("roles", rolesList);
-
-        // Установка времени создания и истечения токена
-        Date issuedDate = new Date();
-        Date expiredDate = new Date(issuedDate.getTime() + securityConstants.getAccessLifetime());
-
-        // Создание и подпись JWT токена
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(userDetails.getUsername())  // Установка имени пользователя
-                .setIssuedAt(issuedDate)  // Время создания токена
-                .setExpiration(expiredDate)  // Время истечения токена
-                .signWith(SignatureAlgorithm.HS256,
-                        securityConstants.getAccessSecret())  // Подпись с использованием секрета
-                .compact();  // Сборка токена
+    public String generateAccessToken(CustomUserDetails userDetails) {
+        var event = new TokenSignEvent();
+        event.begin();
+        var token = accessTokenIssuer.issue(userDetails);
+        commit(event, TokenSignEvent.ACCESS);
+        return token;
+    }
+
+    /**
+     * Генерация access токена по claims действующего токена.
+     * <p>
+     * Используется для упреждающего обновления: новый токен получает тот же идентификатор,
+     * имя, роли и время аутентификации, но новые время выпуска и срок действия.
+     *
+     * @param claims claims действующего access токена.
+     * @return JWT токен доступа.
+     */
+    public String generateAccessToken(AccessTokenClaims claims) {
+        var event = new TokenSignEvent();
+        event.begin();
+        var token = accessTokenIssuer.issue(claims.userId(), claims.subject(), claims.roles(),
+                claims.authTime());
+        commit(event, TokenSignEvent.ACCESS_RENEWAL);
+        return token;
     }
 
     /**
@@ -67,27 +98,55 @@ public class JwtTokenUtils {
      * @param userDetails данные пользователя, для которого генерируется токен.
      * @return JWT refresh токен.
      */
-    public String generateRefreshToken(UserDetails userDetails) {
-        // Сборка данных (claims), которые будут добавлены в токен
-        Map<String, Object> claims = new HashMap<>();
-        List<String> rolesList = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .toList();
-        claims.put("roles", rolesList);
-
-        // Установка времени создания и истечения токена
-        Date issuedDate = new Date();
-        Date expiredDate = new Date(issuedDate.getTime() + securityConstants.getRefreshLifetime());
-
-        // Создание и подпись JWT токена
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(userDetails.getUsername())  // Установка имени пользователя
-                .setIssuedAt(issuedDate)  // Время создания токена
-                .setExpiration(expiredDate)  // Время истечения токена
-                .signWith(SignatureAlgorithm.HS256,
-                        securityConstants.getRefreshSecret())  // Подпись с использованием секрета
-                .compact();  // Сборка токена
+    public String generateRefreshToken(CustomUserDetails userDetails) {
+        var event = new TokenSignEvent();
+        event.begin();
+        var token = refreshTokenIssuer.issue(userDetails);
+        commit(event, TokenSignEvent.REFRESH);
+        return token;
+    }
+
+    /**
+     * Проверка access токена.
+     * <p>
+     * Токены, выпущенные этим приложением, проверяются {@link Hs256TokenVerifier} без разбора
+     * в `Claims`. Токены другой формы проверяются jjwt, исключения которого переводятся в код результата.
+     * Каждая проверка отмечается событием JFR {@link TokenVerifyEvent}.
+     *
+     * @param token JWT токен доступа.
+     * @return результат проверки с claims для действительного токена.
+     */
+    public TokenVerification verifyAccessToken(String token) {
+        var event = new TokenVerifyEvent();
+        event.begin();
+        TokenVerification verification = accessTokenVerifier.verify(token);
+        if (verification.status() == TokenVerification.Status.UNSUPPORTED) {
+            event.fallback = true;
+            verification = verifyWithJjwt(token);
+        }
+        if (event.shouldCommit()) {
+            event.status = verification.status().name();
+            event.commit();
+        }
+        return verification;
+    }
+
+    private TokenVerification verifyWithJjwt(String token) {
+        try {
+            Claims claims = getAllClaimsFromToken(token, securityConstants.getAccessSecret());
+            List<String> roles = getRoles(claims);
+            return TokenVerification.valid(new AccessTokenClaims(getUserId(claims), claims.getSubject(),
+                    roles == null ? List.of() : List.copyOf(roles),
+                    claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime() / 1000,
+                    claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime() / 1000,
+                    getAuthTime(claims)));
+        } catch (ExpiredJwtException e) {
+            return TokenVerification.EXPIRED;
+        } catch (SignatureException e) {
+            return TokenVerification.INVALID_SIGNATURE;
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenVerification.MALFORMED;
+        }
     }
 
     /**
@@ -113,7 +172,38 @@ public class JwtTokenUtils {
      * @return список ролей пользователя, содержащихся в токене.
      */
     public List<String> getRoles(String token, String secret) {
-        return getAllClaimsFromToken(token, secret).get("roles", List.class);
+        return getRoles(getAllClaimsFromToken(token, secret));
+    }
+
+    /**
+     * Извлечение ролей из уже разобранных claims.
+     *
+     * @param claims claims токена.
+     * @return список ролей пользователя, содержащихся в токене.
+     */
+    public List<String> getRoles(Claims claims) {
+        return claims.get(ROLES_CLAIM, List.class);
+    }
+
+    /**
+     * Извлечение идентификатора пользователя из уже разобранных claims.
+     *
+     * @param claims claims токена.
+     * @return идентификатор пользователя или {@code null}, если токен выпущен без claim `uid`.
+     */
+    public Long getUserId(Claims claims) {
+        return claims.get(USER_ID_CLAIM, Long.class);
+    }
+
+    /**
+     * Извлечение времени аутентификации из уже разобранных claims.
+     *
+     * @param claims claims токена.
+     * @return время аутентификации в секундах эпохи или 0, если токен выпущен без claim `auth_time`.
+     */
+    public long getAuthTime(Claims claims) {
+        Long authTime = claims.get(AUTH_TIME_CLAIM, Long.class);
+        return authTime == null ? 0 : authTime;
     }
 
     /**
@@ -125,10 +215,17 @@ public class JwtTokenUtils {
      * @param secret секретный ключ, используемый для проверки подписи токена.
      * @return объект `Claims`, содержащий все данные из токена.
      */
-    private Claims getAllClaimsFromToken(String token, String secret) {
+    public Claims getAllClaimsFromToken(String token, String secret) {
         return Jwts.parser()
                 .setSigningKey(secret)  // Установка секретного ключа для проверки подписи
                 .parseClaimsJws(token)  // Разбор токена
                 .getBody();  // Получение тела токена (claims)
     }
+
+    private static void commit(TokenSignEvent event, String tokenType) {
+        if (event.shouldCommit()) {
+            event.tokenType = tokenType;
+            event.commit();
+        }
+    }
 }
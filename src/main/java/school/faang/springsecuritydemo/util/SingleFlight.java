@@ -0,0 +1,87 @@
+package school.faang.springsecuritydemo.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Объединение одинаковых параллельных вычислений (single-flight).
+ * <p>
+ * Первый вызов с ключом выполняет вычисление, остальные вызовы с тем же ключом дожидаются
+ * его результата. Успешный результат хранится в течение окна после завершения и возвращается
+ * повторам без повторного вычисления. Ошибка не запоминается: ее получают только вызовы,
+ * ожидавшие это вычисление, следующий вызов выполнит его заново.
+ *
+ * @param <K> тип ключа.
+ * @param <V> тип результата.
+ */
+public class SingleFlight<K, V> {
+
+    // Вычисления в процессе выполнения и недавние результаты
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    // Планировщик удаления результата по истечении окна
+    private final Executor expiration;
+
+    /**
+     * @param window время, в течение которого результат возвращается повторным вызовам.
+     */
+    public SingleFlight(Duration window) {
+        this.expiration = CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Вычисление, которое может завершиться проверяемым исключением.
+     */
+    @FunctionalInterface
+    public interface Computation<V, E extends Exception> {
+
+        V compute() throws E;
+    }
+
+    /**
+     * Выполнение вычисления или присоединение к уже выполняемому с тем же ключом.
+     *
+     * @param key         ключ, по которому объединяются вызовы.
+     * @param computation вычисление.
+     * @return результат вычисления.
+     * @throws E ошибка вычисления.
+     */
+    public <E extends Exception> V execute(K key, Computation<V, E> computation) throws E {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, own);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            V value = computation.compute();
+            own.complete(value);
+            expiration.execute(() -> calls.remove(key, own));
+            return value;
+        } catch (Exception | Error e) {
+            calls.remove(key, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> V await(CompletableFuture<V> future) throws E {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw (E) cause;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package school.faang.springsecuritydemo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Утилитный класс для получения SHA-256 дайджестов токенов и других секретных значений.
+ * <p>
+ * Дайджест используется там, где само значение не должно храниться: в ключах кэшей
+ * и объединения запросов.
+ */
+public final class TokenHashUtils {
+
+    private TokenHashUtils() {
+    }
+
+    /**
+     * SHA-256 дайджест строки в UTF-8.
+     *
+     * @param value исходное значение.
+     * @return дайджест длиной 32 байта.
+     */
+    public static byte[] sha256(String value) {
+        return messageDigest().digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * SHA-256 дайджест нескольких значений в виде base64url-строки.
+     * <p>
+     * Значения разделяются нулевым байтом, поэтому разные наборы частей не дают одинаковый вход.
+     *
+     * @param parts исходные значения.
+     * @return base64url-представление дайджеста без выравнивания.
+     */
+    public static String sha256Base64(String... parts) {
+        MessageDigest digest = messageDigest();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                digest.update((byte) 0);
+            }
+            digest.update(parts[i].getBytes(StandardCharsets.UTF_8));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+    }
+
+    private static MessageDigest messageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 не поддерживается", e);
+        }
+    }
+}
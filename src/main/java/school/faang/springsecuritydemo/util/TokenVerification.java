@@ -0,0 +1,42 @@
+package school.faang.springsecuritydemo.util;
+
+/**
+ * Результат проверки access токена: код результата и claims для действительного токена.
+ * <p>
+ * Ошибки проверки возвращаются кодом, а не исключением, так как недействительные токены
+ * являются штатной ситуацией на горячем пути каждого запроса.
+ *
+ * @param status код результата проверки.
+ * @param claims claims токена, заполнены только для {@link Status#VALID}.
+ */
+public record TokenVerification(Status status, AccessTokenClaims claims) {
+
+    public static final TokenVerification EXPIRED = new TokenVerification(Status.EXPIRED, null);
+    public static final TokenVerification INVALID_SIGNATURE = new TokenVerification(Status.INVALID_SIGNATURE, null);
+    public static final TokenVerification MALFORMED = new TokenVerification(Status.MALFORMED, null);
+    public static final TokenVerification UNSUPPORTED = new TokenVerification(Status.UNSUPPORTED, null);
+
+    public static TokenVerification valid(AccessTokenClaims claims) {
+        return new TokenVerification(Status.VALID, claims);
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    /**
+     * Код результата проверки токена.
+     */
+    public enum Status {
+        // Подпись верна, срок действия не истек
+        VALID,
+        // Подпись верна, но срок действия истек
+        EXPIRED,
+        // Подпись не совпадает
+        INVALID_SIGNATURE,
+        // Токен не является корректным JWT
+        MALFORMED,
+        // Токен другой формы (заголовок, claims), его должен проверить универсальный парсер
+        UNSUPPORTED
+    }
+}
@@ -0,0 +1,40 @@
+package school.faang.springsecuritydemo.warmup;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки прогрева перед открытием readiness-пробы.
+ * <p>
+ * Все значения берутся из конфигурационного файла с префиксом `warmup`.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "warmup")
+public class WarmUpProperties {
+
+    /**
+     * Включение прогрева
+     */
+    private boolean enabled = true;
+
+    /**
+     * Общее время прогрева. Каждый этап ограничен еще и числом итераций, поэтому прогрев
+     * обычно завершается раньше
+     */
+    private Duration budget = Duration.ofSeconds(30);
+
+    /**
+     * Число потоков, параллельно выполняющих этапы прогрева
+     */
+    private int parallelism = 4;
+
+    /**
+     * Число соединений пула, открываемых заранее (не больше размера пула)
+     */
+    private int connections = 30;
+}
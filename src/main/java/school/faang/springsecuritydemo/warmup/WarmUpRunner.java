@@ -0,0 +1,245 @@
+package school.faang.springsecuritydemo.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import school.faang.springsecuritydemo.auth.SecurityConstants;
+import school.faang.springsecuritydemo.repository.RefreshTokenRepository;
+import school.faang.springsecuritydemo.repository.RoleRepository;
+import school.faang.springsecuritydemo.repository.UserRepository;
+import school.faang.springsecuritydemo.util.AccessTokenClaims;
+import school.faang.springsecuritydemo.util.JwtTokenUtils;
+
+/**
+ * Прогрев JIT и пула соединений перед приемом трафика.
+ * <p>
+ * `ApplicationRunner` выполняется до `ApplicationReadyEvent`, поэтому readiness-проба
+ * (`/actuator/health/readiness`) остается закрытой, пока прогрев не завершится. Этапы:<br/>
+ * - открытие соединений пула до `warmup.connections`,<br/>
+ * - выпуск и проверка синтетических access токенов (собственный верификатор и jjwt),<br/>
+ * - проверка пароля BCrypt напрямую через {@link PasswordEncoder},<br/>
+ * - горячие запросы репозиториев: планы запросов Hibernate и кэш выражений драйвера,<br/>
+ * - HTTP-запросы к собственному серверу: цепочка фильтров, method security, Jackson
+ * и обработка ошибок (логин без пароля отклоняется до аутентификации).<br/>
+ * <p>
+ * Время делится между оставшимися этапами поровну, ошибки прогрева только логируются.
+ * Синтетические запросы не изменяют данные: используются несуществующие пользователь и токены,
+ * а логин без пароля не доходит до аутентификации и не пишется в журнал логинов.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmUpRunner implements ApplicationRunner {
+
+    // Имя несуществующего пользователя для синтетических запросов
+    private static final String WARM_UP_USERNAME = "warm-up";
+
+    private static final int TOKEN_ITERATIONS = 20_000;
+
+    private static final int QUERY_ITERATIONS = 300;
+
+    // BCrypt медленный, нескольких десятков проверок достаточно для JIT
+    private static final int PASSWORD_ITERATIONS = 30;
+
+    private static final int HTTP_REQUESTS = 3_000;
+
+    // Каждый такой по счету HTTP-запрос — логин без пароля
+    private static final int LOGIN_EVERY = 100;
+
+    private final WarmUpProperties properties;
+
+    private final JwtTokenUtils jwtTokenUtils;
+
+    private final SecurityConstants securityConstants;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final DataSource dataSource;
+
+    private final UserRepository userRepository;
+
+    private final RoleRepository roleRepository;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final Environment environment;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + properties.getBudget().toNanos();
+        List<Phase> phases = List.of(
+                new Phase("connections", 1, this::openConnections),
+                new Phase("tokens", properties.getParallelism(), this::signAndVerifyTokens),
+                new Phase("passwords", properties.getParallelism(), this::matchPasswords),
+                new Phase("queries", properties.getParallelism(), this::runQueries),
+                new Phase("http", properties.getParallelism(), this::callEndpoints));
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism());
+        try {
+            for (int i = 0; i < phases.size(); i++) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    log.warn("Время прогрева исчерпано, пропущены этапы начиная с {}", phases.get(i).name());
+                    break;
+                }
+                runPhase(executor, phases.get(i), now + (deadline - now) / (phases.size() - i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Прогрев завершен за {} мс", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void runPhase(ExecutorService executor, Phase phase, long phaseDeadline) {
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(phase.parallelism());
+        for (int i = 0; i < phase.parallelism(); i++) {
+            futures.add(executor.submit(() -> {
+                phase.task().run(phaseDeadline, phase.parallelism());
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get(Math.max(0, phaseDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+            } catch (ExecutionException e) {
+                log.warn("Ошибка на этапе прогрева {}", phase.name(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.info("Этап прогрева {} занял {} мс", phase.name(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Одновременное удержание соединений заставляет пул открыть их сейчас, а не под нагрузкой.
+     */
+    private void openConnections(long deadline, int parallelism) throws SQLException {
+        int count = properties.getConnections();
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            count = Math.min(count, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+        }
+        List<Connection> connections = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count && System.nanoTime() < deadline; i++) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                // Запрос нужен и для ленивого прокси реплики: без него физическое соединение не берется
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private void signAndVerifyTokens(long deadline, int parallelism) {
+        var claims = new AccessTokenClaims(null, WARM_UP_USERNAME, List.of("ROLE_USER"), 0, 0, 0);
+        for (int i = 0; i < TOKEN_ITERATIONS / parallelism && System.nanoTime() < deadline; i++) {
+            var token = jwtTokenUtils.generateAccessToken(claims);
+            jwtTokenUtils.verifyAccessToken(token);
+            // Разбор jjwt используется для refresh-токенов в формате JWT и для чужих access токенов
+            if (i % 10 == 0) {
+                jwtTokenUtils.getAllClaimsFromToken(token, securityConstants.getAccessSecret());
+            }
+        }
+    }
+
+    private void matchPasswords(long deadline, int parallelism) {
+        String hash = passwordEncoder.encode(WARM_UP_USERNAME);
+        for (int i = 0; i < PASSWORD_ITERATIONS / parallelism && System.nanoTime() < deadline; i++) {
+            passwordEncoder.matches(WARM_UP_USERNAME, hash);
+        }
+    }
+
+    private void runQueries(long deadline, int parallelism) {
+        var random = new SecureRandom();
+        byte[] tokenHash = new byte[32];
+        for (int i = 0; i < QUERY_ITERATIONS / parallelism && System.nanoTime() < deadline; i++) {
+            random.nextBytes(tokenHash);
+            userRepository.findWithRolesByUsername(WARM_UP_USERNAME);
+            userRepository.findWithRolesById(-1L);
+            roleRepository.findHierarchy();
+            refreshTokenRepository.existsByTokenHashAndExpiresAtAfter(tokenHash, Instant.now());
+            refreshTokenRepository.consume(tokenHash);
+        }
+    }
+
+    private void callEndpoints(long deadline, int parallelism) throws Exception {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null) {
+            // Приложение запущено без веб-сервера (например, в тестах)
+            return;
+        }
+        var baseUrl = "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+        var userToken = jwtTokenUtils.generateAccessToken(
+                new AccessTokenClaims(null, WARM_UP_USERNAME, List.of("ROLE_USER"), 0, 0, 0));
+        var adminToken = jwtTokenUtils.generateAccessToken(
+                new AccessTokenClaims(null, WARM_UP_USERNAME, List.of("ROLE_ADMIN"), 0, 0, 0));
+        var authorization = securityConstants.getAuthHeader();
+        var bearer = securityConstants.getBearerPrefix();
+
+        var secured = HttpRequest.newBuilder(URI.create(baseUrl + "/test/secured"))
+                .header(authorization, bearer + userToken).build();
+        var admin = HttpRequest.newBuilder(URI.create(baseUrl + "/test/admin"))
+                .header(authorization, bearer + adminToken).build();
+        var login = HttpRequest.newBuilder(URI.create(baseUrl + "/authorization/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + WARM_UP_USERNAME + "\"}"))
+                .build();
+
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build()) {
+            for (int i = 0; i < HTTP_REQUESTS / parallelism && System.nanoTime() < deadline; i++) {
+                HttpRequest request = i % LOGIN_EVERY == 0 ? login : i % 2 == 0 ? secured : admin;
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+        }
+    }
+
+    /**
+     * Этап прогрева, выполняемый в {@code parallelism} потоках до {@code deadline} (System.nanoTime).
+     */
+    private record Phase(String name, int parallelism, PhaseTask task) {
+    }
+
+    @FunctionalInterface
+    private interface PhaseTask {
+        void run(long deadline, int parallelism) throws Exception;
+    }
+}
@@ -0,0 +1,24 @@
+-- Refresh-токены хранятся в виде SHA-256 дайджеста и ищутся по уникальному индексу
+alter table refresh_tokens
+    add column token_hash bytea,
+    add column created_at timestamptz not null default now(),
+    add column expires_at timestamptz;
+
+-- Одинаковые JWT, выпущенные в одну секунду, схлопываются в одну запись
+delete
+from refresh_tokens a
+    using refresh_tokens b
+where a.token = b.token
+  and a.id > b.id;
+
+-- Срок действия существующих токенов неизвестен без разбора JWT, используется время жизни по умолчанию
+update refresh_tokens
+set token_hash = sha256(convert_to(token, 'UTF8')),
+    expires_at = now() + interval '1 day';
+
+alter table refresh_tokens
+    alter column token_hash set not null,
+    alter column expires_at set not null,
+    drop column token;
+
+create unique index refresh_tokens_token_hash_idx on refresh_tokens (token_hash);
@@ -0,0 +1,17 @@
+-- Иерархия ролей: родительская роль включает права дочерней
+create table roles_hierarchy
+(
+    parent_role_id int not null,
+    child_role_id  int not null,
+    primary key (parent_role_id, child_role_id),
+    foreign key (parent_role_id) references roles (id),
+    foreign key (child_role_id) references roles (id),
+    check (parent_role_id <> child_role_id)
+);
+
+insert into roles_hierarchy (parent_role_id, child_role_id)
+select parent.id, child.id
+from roles parent,
+     roles child
+where parent.name = 'ROLE_ADMIN'
+  and child.name = 'ROLE_USER';
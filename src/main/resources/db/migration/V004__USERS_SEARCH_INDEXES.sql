@@ -0,0 +1,8 @@
+-- Поиск пользователей администраторами
+
+-- Порядок и префиксный LIKE по имени в побайтовой сортировке используют один B-tree индекс
+create index users_username_c_idx on users (username collate "C");
+
+-- Поиск по части email
+create extension if not exists pg_trgm;
+create index users_email_trgm_idx on users using gin (email gin_trgm_ops);
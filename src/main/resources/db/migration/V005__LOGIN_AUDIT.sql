@@ -0,0 +1,37 @@
+-- История логинов и обновлений токенов, секционированная по месяцам.
+-- Старые месяцы удаляются через DROP TABLE login_audit_YYYY_MM без VACUUM и блокировок основной таблицы.
+create table login_audit
+(
+    occurred_at timestamptz not null,
+    type        varchar(16) not null,
+    result      varchar(16) not null,
+    user_id     bigint,
+    username    text,
+    client_ip   varchar(45)
+) partition by range (occurred_at);
+
+create index login_audit_user_id_idx on login_audit (user_id, occurred_at);
+
+-- Страховка на случай, если секции не были созданы заранее. Пока в ней есть строки за месяц,
+-- секцию этого месяца создать нельзя, поэтому секции создаются с запасом (см. LoginAuditPartitionMaintainer)
+create table login_audit_default partition of login_audit default;
+
+-- Создание секций с текущего месяца (UTC) на months_ahead месяцев вперед
+create function create_login_audit_partitions(months_ahead int) returns void
+    language plpgsql as
+$$
+declare
+    month_start date;
+begin
+    for i in 0..months_ahead
+        loop
+            month_start := date_trunc('month', now() at time zone 'UTC')::date + make_interval(months => i);
+            execute format('create table if not exists %I partition of login_audit for values from (%L) to (%L)',
+                           'login_audit_' || to_char(month_start, 'YYYY_MM'),
+                           to_char(month_start, 'YYYY-MM-DD') || ' 00:00:00+00',
+                           to_char(month_start + interval '1 month', 'YYYY-MM-DD') || ' 00:00:00+00');
+        end loop;
+end;
+$$;
+
+select create_login_audit_partitions(2);
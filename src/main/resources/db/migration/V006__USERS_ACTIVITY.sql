@@ -0,0 +1,5 @@
+-- Время последнего логина и последнего запроса пользователя для очистки неактивных учетных записей.
+-- Значения записываются пакетами из UserActivityTracker, а не на каждый запрос
+alter table users
+    add column last_login_at timestamptz,
+    add column last_seen_at  timestamptz;
@@ -0,0 +1,2 @@
+-- Индекс для пакетного удаления истекших refresh-токенов (RefreshTokenService.purgeExpired)
+create index refresh_tokens_expires_at_idx on refresh_tokens (expires_at);
@@ -0,0 +1,6 @@
+-- Время последнего изменения ролей пользователя. Access токены, выпущенные не позже него, отклоняются
+-- (TokenRevocationRegistry), значение переживает перезапуск экземпляров и пропущенные уведомления шины
+alter table users
+    add column roles_changed_at timestamptz;
+
+create index users_roles_changed_at_idx on users (roles_changed_at) where roles_changed_at is not null;
@@ -0,0 +1,103 @@
+package school.faang.springsecuritydemo.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class LoginAuditServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    // Имена пользователей из успешно выполненных INSERT, дополняется потоком записи
+    private final List<Object> written = new CopyOnWriteArrayList<>();
+
+    @Test
+    void dropsOnlyRejectedEventsOfRejectedBatch() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            List<Object> usernames = usernames(invocation.getArguments());
+            if (usernames.contains("bad")) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            written.addAll(usernames);
+            return usernames.size();
+        });
+        var service = new LoginAuditService(properties(), jdbcTemplate);
+
+        writeAll(service, "a", "b", "bad", "c", "d");
+
+        assertEquals(List.of("a", "b", "c", "d"), written);
+        assertEquals(1, service.getDropped());
+    }
+
+    @Test
+    void retriesTransientFailures() throws InterruptedException {
+        var failures = new int[] {2};
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            if (failures[0]-- > 0) {
+                throw new QueryTimeoutException("timeout");
+            }
+            List<Object> usernames = usernames(invocation.getArguments());
+            written.addAll(usernames);
+            return usernames.size();
+        });
+        var service = new LoginAuditService(properties(), jdbcTemplate);
+
+        service.start();
+        record(service, "a", "b");
+        // Повторы выполняются потоком записи, при остановке делается только одна попытка
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        service.stop();
+
+        assertEquals(List.of("a", "b"), written);
+        assertEquals(0, service.getDropped());
+    }
+
+    private static void writeAll(LoginAuditService service, String... usernames) {
+        service.start();
+        record(service, usernames);
+        service.stop();
+    }
+
+    private static void record(LoginAuditService service, String... usernames) {
+        for (String username : usernames) {
+            service.record(new LoginAuditEvent(LoginAuditEvent.Type.LOGIN, LoginAuditEvent.Result.FAILURE,
+                    null, username, "127.0.0.1", Instant.now()));
+        }
+    }
+
+    /**
+     * Имена пользователей из аргументов INSERT: пятый столбец каждой строки.
+     */
+    private static List<Object> usernames(Object[] invocationArgs) {
+        Object[] args = invocationArgs.length == 2 && invocationArgs[1] instanceof Object[] array
+                ? array
+                : Arrays.copyOfRange(invocationArgs, 1, invocationArgs.length);
+        List<Object> usernames = new ArrayList<>();
+        for (int i = 4; i < args.length; i += 6) {
+            usernames.add(args[i]);
+        }
+        return usernames;
+    }
+
+    private static AuditProperties properties() {
+        var properties = new AuditProperties();
+        properties.setFlushInterval(Duration.ofMillis(10));
+        return properties;
+    }
+}
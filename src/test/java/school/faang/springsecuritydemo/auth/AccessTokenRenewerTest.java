@@ -0,0 +1,73 @@
+package school.faang.springsecuritydemo.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import school.faang.springsecuritydemo.util.AccessTokenClaims;
+import school.faang.springsecuritydemo.util.JwtTokenUtils;
+
+class AccessTokenRenewerTest {
+
+    private static final long MAX_SESSION_SECONDS = 3600;
+
+    private final JwtTokenUtils jwtTokenUtils = new JwtTokenUtils(securityConstants());
+
+    private final AccessTokenRenewer renewer = new AccessTokenRenewer(jwtTokenUtils, securityConstants());
+
+    @Test
+    void renewedTokenKeepsAuthTime() {
+        long now = System.currentTimeMillis() / 1000;
+        long authTime = now - 600;
+        var claims = expiringClaims(authTime);
+
+        String renewed = renewer.renewIfExpiring(token(claims), claims);
+
+        assertNotNull(renewed);
+        var renewedClaims = jwtTokenUtils.verifyAccessToken(renewed).claims();
+        assertEquals(authTime, renewedClaims.authTime());
+        assertEquals(now, renewedClaims.issuedAt(), 1);
+    }
+
+    @Test
+    void refusesRenewalAfterMaxSessionLifetime() {
+        long now = System.currentTimeMillis() / 1000;
+        var claims = expiringClaims(now - MAX_SESSION_SECONDS - 1);
+
+        assertNull(renewer.renewIfExpiring(token(claims), claims));
+    }
+
+    @Test
+    void refusesRenewalWithoutAuthTime() {
+        var claims = expiringClaims(0);
+
+        assertNull(renewer.renewIfExpiring(token(claims), claims));
+    }
+
+    /**
+     * Claims токена, который истекает через 10 секунд, внутри окна обновления.
+     */
+    private static AccessTokenClaims expiringClaims(long authTime) {
+        long now = System.currentTimeMillis() / 1000;
+        return new AccessTokenClaims(42L, "user", List.of("ROLE_USER"), now - 590, now + 10, authTime);
+    }
+
+    private String token(AccessTokenClaims claims) {
+        // Для учета выпусков важна только подпись токена, поэтому подходит любой токен пользователя
+        return jwtTokenUtils.generateAccessToken(claims);
+    }
+
+    private static SecurityConstants securityConstants() {
+        var securityConstants = new SecurityConstants();
+        securityConstants.setAccessSecret("ASDIJIUuhHUHUIIUVFfgff134gguYYlloigbVxseqwty");
+        securityConstants.setAccessLifetime(600_000);
+        securityConstants.setRefreshSecret("wenuiuweiGUYGYUVHBXWS112jBUIWCIOJBHJIHtdfGygioiHy6d78d");
+        securityConstants.setRefreshLifetime(86_400_000);
+        securityConstants.setRenewWindow(120_000);
+        securityConstants.setRenewInterval(30_000);
+        securityConstants.setMaxSessionLifetime((int) MAX_SESSION_SECONDS * 1000);
+        return securityConstants;
+    }
+}
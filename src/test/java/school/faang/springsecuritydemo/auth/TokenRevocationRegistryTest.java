@@ -0,0 +1,99 @@
+package school.faang.springsecuritydemo.auth;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import school.faang.springsecuritydemo.invalidation.InvalidationEvent;
+import school.faang.springsecuritydemo.repository.UserRepository;
+import school.faang.springsecuritydemo.util.AccessTokenClaims;
+
+class TokenRevocationRegistryTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final TokenRevocationRegistry registry = new TokenRevocationRegistry(securityConstants(), userRepository);
+
+    @Test
+    void revokesTokensIssuedBeforeOrInSameSecondAsEvent() {
+        long now = System.currentTimeMillis() / 1000;
+        registry.onInvalidation(new InvalidationEvent(InvalidationEvent.Topic.TOKEN, "1"));
+        long revokedAt = System.currentTimeMillis() / 1000;
+
+        assertTrue(registry.isRevoked(claims(1L, now - 60)));
+        assertTrue(registry.isRevoked(claims(1L, now)));
+        assertFalse(registry.isRevoked(claims(1L, revokedAt + 1)));
+        assertFalse(registry.isRevoked(claims(2L, now - 60)));
+        assertFalse(registry.isRevoked(claims(null, now - 60)));
+    }
+
+    @Test
+    void ignoresOtherTopicsAndKeepsEntriesOnResync() {
+        long now = System.currentTimeMillis() / 1000;
+        registry.onInvalidation(new InvalidationEvent(InvalidationEvent.Topic.USER, "1"));
+        assertFalse(registry.isRevoked(claims(1L, now - 60)));
+
+        registry.onInvalidation(new InvalidationEvent(InvalidationEvent.Topic.TOKEN, "1"));
+        registry.onResync();
+        registry.prune();
+        assertTrue(registry.isRevoked(claims(1L, now - 60)));
+    }
+
+    @Test
+    void usesPublisherTimestamp() {
+        long now = System.currentTimeMillis() / 1000;
+        // Часы публикующего экземпляра отстают на минуту от часов получателя
+        registry.onInvalidation(new InvalidationEvent(InvalidationEvent.Topic.TOKEN, "1", (now - 60) * 1000));
+
+        assertTrue(registry.isRevoked(claims(1L, now - 61)));
+        assertFalse(registry.isRevoked(claims(1L, now - 59)));
+    }
+
+    @Test
+    void loadsPersistedRevocationsOnStartupAndResync() {
+        long now = System.currentTimeMillis() / 1000;
+        when(userRepository.findRolesChangedSince(any())).thenReturn(List.of(change(1L, now)));
+        registry.afterSingletonsInstantiated();
+
+        assertTrue(registry.isRevoked(claims(1L, now - 60)));
+        assertFalse(registry.isRevoked(claims(2L, now - 60)));
+
+        // Изменение, событие о котором пропущено, пока шина была отключена
+        when(userRepository.findRolesChangedSince(any())).thenReturn(List.of(change(2L, now)));
+        registry.onResync();
+
+        assertTrue(registry.isRevoked(claims(1L, now - 60)));
+        assertTrue(registry.isRevoked(claims(2L, now - 60)));
+        verify(userRepository, times(2)).findRolesChangedSince(any());
+    }
+
+    private static UserRepository.RolesChange change(Long userId, long changedAtSeconds) {
+        return new UserRepository.RolesChange() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getChangedAtSeconds() {
+                return changedAtSeconds;
+            }
+        };
+    }
+
+    private static AccessTokenClaims claims(Long userId, long issuedAt) {
+        return new AccessTokenClaims(userId, "user", List.of("ROLE_USER"), issuedAt, issuedAt + 600, issuedAt);
+    }
+
+    private static SecurityConstants securityConstants() {
+        var securityConstants = new SecurityConstants();
+        securityConstants.setAccessLifetime(600_000);
+        return securityConstants;
+    }
+}
@@ -0,0 +1,136 @@
+package school.faang.springsecuritydemo.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import school.faang.springsecuritydemo.config.PrimaryConnectionDetails;
+import school.faang.springsecuritydemo.service.UserService;
+
+/**
+ * Проверка шины инвалидации на локальном Postgres (см. dev-env).
+ * <p>
+ * Второй экземпляр сервиса моделируется отдельной шиной с собственным соединением.
+ */
+@SpringBootTest
+class InvalidationBusTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Autowired
+    private InvalidationBus bus;
+
+    @Autowired
+    private InvalidationProperties properties;
+
+    @Autowired
+    private PrimaryConnectionDetails connectionDetails;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    private final RecordingListener remoteListener = new RecordingListener();
+
+    private InvalidationBus remoteBus;
+
+    @BeforeEach
+    void startRemoteNode() throws InterruptedException {
+        remoteBus = new InvalidationBus(properties, connectionDetails, List.of(remoteListener));
+        remoteBus.start();
+        assertTrue(remoteListener.resyncs.tryAcquire(TIMEOUT_SECONDS, TimeUnit.SECONDS), "шина не подключилась");
+    }
+
+    @AfterEach
+    void stopRemoteNode() {
+        remoteBus.stop();
+    }
+
+    @Test
+    void deliversEventsToOtherNodes() throws InterruptedException {
+        var event = new InvalidationEvent(InvalidationEvent.Topic.ROLE, "ROLE_ADMIN");
+
+        bus.publish(event);
+
+        assertEquals(event, remoteListener.events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void invalidatesCachedUserOnOtherNode() throws InterruptedException {
+        var cached = userService.loadUserByUsername("user");
+        assertSame(cached, userService.loadUserByUsername("user"));
+
+        remoteBus.publish(new InvalidationEvent(InvalidationEvent.Topic.USER, cached.getId().toString()));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (userService.loadUserByUsername("user") == cached && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertNotSame(cached, userService.loadUserByUsername("user"));
+    }
+
+    @Test
+    void resyncsAndKeepsDeliveringAfterConnectionLoss() throws InterruptedException {
+        jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                InvalidationBus.APPLICATION_NAME);
+
+        assertTrue(remoteListener.resyncs.tryAcquire(TIMEOUT_SECONDS, TimeUnit.SECONDS), "шина не переподключилась");
+
+        var event = new InvalidationEvent(InvalidationEvent.Topic.TOKEN, "42");
+        bus.publish(event);
+        assertEquals(event, remoteListener.events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void sendsResyncWhenOutgoingQueueOverflows() throws InterruptedException {
+        var overflowProperties = new InvalidationProperties();
+        overflowProperties.setChannel(properties.getChannel());
+        overflowProperties.setMaxPendingEvents(2);
+        var overflowBus = new InvalidationBus(overflowProperties, connectionDetails, List.of());
+        // Шина еще не запущена, события копятся в очереди отправки
+        for (int i = 0; i < 3; i++) {
+            overflowBus.publish(new InvalidationEvent(InvalidationEvent.Topic.USER, String.valueOf(i)));
+        }
+
+        overflowBus.start();
+        try {
+            assertTrue(remoteListener.resyncs.tryAcquire(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                    "полный сброс не получен");
+            assertNull(remoteListener.events.poll(100, TimeUnit.MILLISECONDS));
+        } finally {
+            overflowBus.stop();
+        }
+    }
+
+    private static final class RecordingListener implements InvalidationListener {
+
+        private final BlockingQueue<InvalidationEvent> events = new LinkedBlockingQueue<>();
+
+        private final Semaphore resyncs = new Semaphore(0);
+
+        @Override
+        public void onInvalidation(InvalidationEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onResync() {
+            resyncs.release();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package school.faang.springsecuritydemo.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long SAMPLE_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private long now;
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test",
+            new LimiterProperties.Budget(20, 2, 40), properties(), () -> now);
+
+    @Test
+    void growsWhileLimitIsUsedAndLatencyIsStable() {
+        window(20, 10);
+        assertEquals(20, limiter.getLimit());
+
+        for (int i = 0; i < 5; i++) {
+            window(limiter.getLimit(), 10);
+        }
+        assertEquals(25, limiter.getLimit());
+    }
+
+    @Test
+    void backsOffWhenLatencyRisesNearLimit() {
+        window(20, 10);
+
+        window(20, 50);
+
+        assertEquals(18, limiter.getLimit());
+    }
+
+    @Test
+    void ignoresSlowRequestsWhileLimitIsNotUsed() {
+        window(20, 10);
+
+        window(5, 50);
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void stableMixOfFastAndSlowRoutesDoesNotBackOff() {
+        for (int i = 0; i < 5; i++) {
+            long[] latencies = new long[20];
+            // Половина запросов группы — быстрые маршруты, половина — медленные
+            Arrays.fill(latencies, 0, 10, 1);
+            Arrays.fill(latencies, 10, 20, 50);
+            window(latencies);
+        }
+
+        assertEquals(24, limiter.getLimit());
+    }
+
+    @Test
+    void rejectsRequestsOverLimitAndNeverDropsBelowMinimum() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        for (int i = 0; i < 20; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        window(20, 10);
+        for (int i = 0; i < 30; i++) {
+            window(limiter.getLimit(), 100);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    private void window(int concurrent, long latencyMillis) {
+        long[] latencies = new long[concurrent];
+        Arrays.fill(latencies, latencyMillis);
+        window(latencies);
+    }
+
+    /**
+     * Одно окно замеров: все запросы выполняются одновременно, последний закрывает окно.
+     */
+    private void window(long... latenciesMillis) {
+        for (int i = 0; i < latenciesMillis.length; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < latenciesMillis.length - 1; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(latenciesMillis[i]));
+        }
+        now += SAMPLE_WINDOW_NANOS;
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(latenciesMillis[latenciesMillis.length - 1]));
+    }
+
+    private static LimiterProperties properties() {
+        var properties = new LimiterProperties();
+        properties.setSampleWindow(Duration.ofNanos(SAMPLE_WINDOW_NANOS));
+        return properties;
+    }
+}
@@ -0,0 +1,119 @@
+package school.faang.springsecuritydemo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import school.faang.springsecuritydemo.domain.Role;
+import school.faang.springsecuritydemo.dto.request.RoleAssignmentRequest.Action;
+import school.faang.springsecuritydemo.invalidation.InvalidationBus;
+import school.faang.springsecuritydemo.invalidation.InvalidationEvent;
+import school.faang.springsecuritydemo.repository.RoleRepository;
+import school.faang.springsecuritydemo.repository.UserRepository;
+
+class RoleAssignmentServiceTest {
+
+    private static final int ROLE_ID = 3;
+
+    private final RoleService roleService = mock(RoleService.class);
+
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final InvalidationBus invalidationBus = mock(InvalidationBus.class);
+
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private final RoleAssignmentService service = new RoleAssignmentService(roleService, roleRepository,
+            userRepository, invalidationBus, transactionTemplate);
+
+    @BeforeEach
+    void setUp() {
+        var role = new Role();
+        role.setId(ROLE_ID);
+        role.setName("ROLE_MODERATOR");
+        when(roleService.getRole("ROLE_MODERATOR")).thenReturn(role);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void grantsInChunksAndInvalidatesOnlyChangedUsers() {
+        // Роль уже есть у пользователей с нечетными идентификаторами
+        when(roleRepository.grant(eq(ROLE_ID), anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(1);
+            return ids.stream().filter(id -> id % 2 == 0).toList();
+        });
+        List<Long> userIds = new ArrayList<>(LongStream.rangeClosed(1, 2500).boxed().toList());
+        userIds.add(7L);
+        userIds.add(-1L);
+
+        var response = service.assignToUsers("ROLE_MODERATOR", Action.GRANT, userIds);
+
+        assertEquals(2500, response.getMatchedUsers());
+        assertEquals(1250, response.getChangedUsers());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(roleRepository, times(3)).grant(eq(ROLE_ID), chunks.capture());
+        assertEquals(List.of(1000, 1000, 500), chunks.getAllValues().stream().map(Collection::size).toList());
+        assertEquals(1001L, chunks.getAllValues().get(1).iterator().next());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<InvalidationEvent>> events = ArgumentCaptor.forClass(Collection.class);
+        verify(invalidationBus, times(3)).publishAll(events.capture());
+        var published = events.getAllValues().stream().flatMap(Collection::stream).toList();
+        assertEquals(2500, published.size());
+        assertEquals(InvalidationEvent.Topic.TOKEN, published.get(1).topic());
+        assertEquals("2", published.get(1).key());
+
+        // Время изменения ролей записывается в той же порции и передается в событиях
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> marked = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Instant> changedAt = ArgumentCaptor.forClass(Instant.class);
+        verify(userRepository, times(3)).markRolesChanged(marked.capture(), changedAt.capture());
+        assertEquals(500, marked.getAllValues().get(0).size());
+        assertEquals(changedAt.getAllValues().get(0).toEpochMilli(), published.get(0).publishedAt());
+    }
+
+    @Test
+    void stopsAfterEmptyChunkWhenMatchesFillWholeChunks() {
+        when(userRepository.findIdsByUsernameLike(anyString(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            return afterId >= 2000 ? List.of()
+                    : LongStream.rangeClosed(afterId + 1, afterId + 1000).boxed().toList();
+        });
+        when(roleRepository.revoke(eq(ROLE_ID), anyCollection())).thenReturn(List.of());
+
+        var response = service.assignByUsernamePrefix("ROLE_MODERATOR", Action.REVOKE, "bulk_");
+
+        assertEquals(2000, response.getMatchedUsers());
+        assertEquals(0, response.getChangedUsers());
+        verify(userRepository).findIdsByUsernameLike("bulk\\_%", 0, RoleAssignmentService.CHUNK_SIZE);
+        verify(userRepository).findIdsByUsernameLike("bulk\\_%", 1000, RoleAssignmentService.CHUNK_SIZE);
+        verify(userRepository).findIdsByUsernameLike("bulk\\_%", 2000, RoleAssignmentService.CHUNK_SIZE);
+        verify(roleRepository, times(2)).revoke(eq(ROLE_ID), anyCollection());
+        verify(roleRepository, never()).grant(anyInt(), anyCollection());
+        verify(userRepository, never()).markRolesChanged(anyCollection(), any());
+        verify(invalidationBus, never()).publishAll(any());
+    }
+}
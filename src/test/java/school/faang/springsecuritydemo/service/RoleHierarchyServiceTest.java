@@ -0,0 +1,132 @@
+package school.faang.springsecuritydemo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import school.faang.springsecuritydemo.domain.Role;
+import school.faang.springsecuritydemo.invalidation.InvalidationEvent;
+import school.faang.springsecuritydemo.repository.RoleRepository;
+
+class RoleHierarchyServiceTest {
+
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+
+    // Перезагрузки выполняются вручную через runReloads()
+    private final Queue<Runnable> reloads = new ArrayDeque<>();
+
+    private final RoleHierarchyService service = new RoleHierarchyService(roleRepository, reloads::add);
+
+    @Test
+    void resolvesTransitiveClosure() {
+        givenHierarchy(edge("ROLE_ADMIN", "ROLE_MODERATOR"), edge("ROLE_MODERATOR", "ROLE_USER"));
+
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_MODERATOR", "ROLE_USER"),
+                names(service.getAuthorities(List.of("ROLE_ADMIN"))));
+        assertEquals(Set.of("ROLE_USER"), names(service.getAuthorities(List.of("ROLE_USER"))));
+        assertEquals(Set.of("ROLE_USER", "ROLE_OTHER"),
+                names(service.getAuthorities(List.of("ROLE_USER", "ROLE_OTHER"))));
+    }
+
+    @Test
+    void sharesAuthoritySetsAndReloadsOnlyAfterInvalidation() {
+        givenHierarchy(edge("ROLE_ADMIN", "ROLE_USER"));
+
+        var first = service.getAuthorities(List.of("ROLE_ADMIN"));
+        assertSame(first, service.getAuthorities(List.of("ROLE_ADMIN")));
+        assertSame(service.getAuthorities(List.of("ROLE_ADMIN", "ROLE_USER")),
+                service.getAuthorities(List.of("ROLE_ADMIN", "ROLE_USER")));
+        verify(roleRepository, times(1)).findHierarchy();
+
+        givenHierarchy();
+        service.onInvalidation(new InvalidationEvent(InvalidationEvent.Topic.ROLE, "ROLE_ADMIN"));
+        runReloads();
+
+        assertEquals(Set.of("ROLE_ADMIN"), names(service.getAuthorities(List.of("ROLE_ADMIN"))));
+        verify(roleRepository, times(2)).findHierarchy();
+    }
+
+    @Test
+    void servesPreviousClosureUntilBackgroundReloadCompletes() {
+        givenHierarchy(edge("ROLE_ADMIN", "ROLE_USER"));
+        var first = service.getAuthorities(List.of("ROLE_ADMIN"));
+
+        givenHierarchy();
+        service.onInvalidation(new InvalidationEvent(InvalidationEvent.Topic.ROLE, "ROLE_ADMIN"));
+        service.onResync();
+
+        // Повторные события присоединяются к уже запланированной перезагрузке
+        assertEquals(1, reloads.size());
+        assertSame(first, service.getAuthorities(List.of("ROLE_ADMIN")));
+        verify(roleRepository, times(1)).findHierarchy();
+
+        runReloads();
+        assertEquals(Set.of("ROLE_ADMIN"), names(service.getAuthorities(List.of("ROLE_ADMIN"))));
+    }
+
+    @Test
+    void keepsPreviousClosureWhenReloadFails() {
+        givenHierarchy(edge("ROLE_ADMIN", "ROLE_USER"));
+        var first = service.getAuthorities(List.of("ROLE_ADMIN"));
+
+        when(roleRepository.findHierarchy()).thenThrow(new IllegalStateException("база недоступна"));
+        service.onResync();
+        runReloads();
+
+        assertSame(first, service.getAuthorities(List.of("ROLE_ADMIN")));
+    }
+
+    private void runReloads() {
+        Runnable reload;
+        while ((reload = reloads.poll()) != null) {
+            reload.run();
+        }
+    }
+
+    @Test
+    void toleratesCycles() {
+        givenHierarchy(edge("ROLE_A", "ROLE_B"), edge("ROLE_B", "ROLE_A"));
+
+        assertEquals(Set.of("ROLE_A", "ROLE_B"), names(service.getAuthorities(List.of("ROLE_B"))));
+    }
+
+    private void givenHierarchy(RoleRepository.RoleEdge... edges) {
+        when(roleRepository.findAll()).thenReturn(List.of(role("ROLE_USER"), role("ROLE_ADMIN")));
+        when(roleRepository.findHierarchy()).thenReturn(List.of(edges));
+    }
+
+    private static Role role(String name) {
+        var role = new Role();
+        role.setName(name);
+        return role;
+    }
+
+    private static RoleRepository.RoleEdge edge(String parent, String child) {
+        return new RoleRepository.RoleEdge() {
+            @Override
+            public String getParent() {
+                return parent;
+            }
+
+            @Override
+            public String getChild() {
+                return child;
+            }
+        };
+    }
+
+    private static Set<String> names(Collection<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+}
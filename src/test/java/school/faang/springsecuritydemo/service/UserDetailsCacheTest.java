@@ -0,0 +1,56 @@
+package school.faang.springsecuritydemo.service;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import school.faang.springsecuritydemo.auth.CustomUserDetails;
+import school.faang.springsecuritydemo.invalidation.InvalidationEvent;
+
+class UserDetailsCacheTest {
+
+    private long now;
+
+    private final UserDetailsCache cache = new UserDetailsCache(Duration.ofMinutes(10), 2, () -> now);
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        var first = cache.getById(1L, () -> user(1L));
+        now += TimeUnit.MINUTES.toNanos(9);
+        assertSame(first, cache.getByUsername("user1", () -> user(1L)));
+
+        now += TimeUnit.MINUTES.toNanos(1);
+        assertNotSame(first, cache.getByUsername("user1", () -> user(1L)));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        var first = cache.getById(1L, () -> user(1L));
+        var second = cache.getById(2L, () -> user(2L));
+        // Обращение делает первую запись самой свежей
+        cache.getById(1L, () -> user(1L));
+
+        cache.getById(3L, () -> user(3L));
+
+        assertSame(first, cache.getByUsername("user1", () -> user(1L)));
+        assertNotSame(second, cache.getByUsername("user2", () -> user(2L)));
+    }
+
+    @Test
+    void dropsValueLoadedDuringInvalidation() {
+        cache.getById(1L, () -> {
+            cache.onInvalidation(new InvalidationEvent(InvalidationEvent.Topic.USER, "1"));
+            return user(1L);
+        });
+        var reloaded = cache.getById(1L, () -> user(1L));
+
+        assertSame(reloaded, cache.getById(1L, () -> user(1L)));
+    }
+
+    private static CustomUserDetails user(long id) {
+        return new CustomUserDetails(id, "user" + id, "password", List.of());
+    }
+}
@@ -0,0 +1,48 @@
+package school.faang.springsecuritydemo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import school.faang.springsecuritydemo.auth.CustomUserDetails;
+
+class Hs256TokenIssuerTest {
+
+    private static final String SECRET = "ASDIJIUuhHUHUIIUVFfgff134gguYYlloigbVxseqwty";
+
+    private final Hs256TokenIssuer issuer = new Hs256TokenIssuer(Decoders.BASE64.decode(SECRET), 600_000);
+
+    @Test
+    void issuedTokenIsAcceptedByJjwt() {
+        var userDetails = new CustomUserDetails(42L, "user", "password", List.of(
+                new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        Claims claims = parse(issuer.issue(userDetails));
+
+        assertEquals("user", claims.getSubject());
+        assertEquals(42L, claims.get("uid", Long.class));
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), claims.get("roles", List.class));
+        assertEquals(600L, (claims.getExpiration().getTime() - claims.getIssuedAt().getTime()) / 1000);
+    }
+
+    @Test
+    void escapesUsernameAsJsonString() {
+        var username = "юзер \"quoted\" \\ \n 😀";
+
+        Claims claims = parse(issuer.issue(7L, username, List.of()));
+
+        assertEquals(username, claims.getSubject());
+        assertEquals(List.of(), claims.get("roles", List.class));
+    }
+
+    private Claims parse(String token) {
+        return Jwts.parser()
+                .setSigningKey(SECRET)
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
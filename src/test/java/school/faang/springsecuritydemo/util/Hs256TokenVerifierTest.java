@@ -0,0 +1,110 @@
+package school.faang.springsecuritydemo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class Hs256TokenVerifierTest {
+
+    private static final String SECRET = "ASDIJIUuhHUHUIIUVFfgff134gguYYlloigbVxseqwty";
+
+    private final Hs256TokenIssuer issuer = new Hs256TokenIssuer(Decoders.BASE64.decode(SECRET), 600_000);
+
+    private final Hs256TokenVerifier verifier = new Hs256TokenVerifier(Decoders.BASE64.decode(SECRET));
+
+    @Test
+    void verifiesIssuedToken() {
+        var username = "юзер \"quoted\" \\ \n 😀";
+
+        var verification = verifier.verify(issuer.issue(42L, username, List.of("ROLE_USER", "ROLE_ADMIN")));
+
+        assertEquals(TokenVerification.Status.VALID, verification.status());
+        var claims = verification.claims();
+        assertEquals(42L, claims.userId());
+        assertEquals(username, claims.subject());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), claims.roles());
+        assertEquals(600L, claims.expiresAt() - claims.issuedAt());
+    }
+
+    @Test
+    void verifiesTokenIssuedByJjwt() {
+        var now = System.currentTimeMillis();
+        var token = Jwts.builder()
+                .claim("roles", List.of("ROLE_USER"))
+                .claim("uid", 7L)
+                .claim("extra", List.of(1, 2, "three"))
+                .setSubject("user")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 60_000))
+                .signWith(SignatureAlgorithm.HS256, SECRET)
+                .compact();
+
+        var verification = verifier.verify(token);
+
+        assertEquals(TokenVerification.Status.VALID, verification.status());
+        assertEquals(7L, verification.claims().userId());
+        assertEquals("user", verification.claims().subject());
+        assertEquals(List.of("ROLE_USER"), verification.claims().roles());
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        var token = issuer.issue(42L, "user", List.of());
+
+        assertSame(TokenVerification.EXPIRED, verifier.verify(token, System.currentTimeMillis() + 601_000));
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        var token = issuer.issue(42L, "user", List.of("ROLE_USER"));
+        var forged = issuer.issue(42L, "user", List.of("ROLE_ADMIN"));
+        var tampered = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+        assertSame(TokenVerification.INVALID_SIGNATURE, verifier.verify(tampered));
+        assertSame(TokenVerification.INVALID_SIGNATURE,
+                new Hs256TokenVerifier(new byte[32]).verify(token));
+    }
+
+    @Test
+    void rejectsNonCanonicalSignature() {
+        var token = issuer.issue(42L, "user", List.of("ROLE_USER"));
+        // Последний символ подписи несет 4 бита данных, 2 младших бита должны быть нулевыми
+        var alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        char last = token.charAt(token.length() - 1);
+        var nonCanonical = token.substring(0, token.length() - 1) + alphabet.charAt(alphabet.indexOf(last) | 1);
+
+        assertSame(TokenVerification.INVALID_SIGNATURE, verifier.verify(nonCanonical));
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        assertSame(TokenVerification.MALFORMED, verifier.verify("not-a-token"));
+        assertSame(TokenVerification.MALFORMED, verifier.verify("a.b.c.d"));
+        assertSame(TokenVerification.MALFORMED, verifier.verify("токен.токен.токен"));
+    }
+
+    @Test
+    void delegatesForeignTokens() {
+        var now = System.currentTimeMillis();
+        var withNotBefore = Jwts.builder()
+                .setSubject("user")
+                .setNotBefore(new Date(now))
+                .setExpiration(new Date(now + 60_000))
+                .signWith(SignatureAlgorithm.HS256, SECRET)
+                .compact();
+        var otherAlgorithm = Jwts.builder()
+                .setSubject("user")
+                .setExpiration(new Date(now + 60_000))
+                .signWith(SignatureAlgorithm.HS512, SECRET + SECRET)
+                .compact();
+
+        assertSame(TokenVerification.UNSUPPORTED, verifier.verify(withNotBefore));
+        assertSame(TokenVerification.UNSUPPORTED, verifier.verify(otherAlgorithm));
+    }
+}